@@ -0,0 +1,119 @@
+package org.usfirst.frc2813.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Compact binary form of the messages for analysis scripts, stored a column at a time.
+ *
+ * The file is a big endian header:
+ * <pre>
+ * int  MAGIC
+ * int  VERSION
+ * long start time of the original file, in nanoseconds since 1970
+ * int  number of messages
+ * int  size of the time column in bytes
+ * int  size of the length column in bytes
+ * long size of the text column in bytes
+ * </pre>
+ * followed by the columns, one entry per message:
+ * <pre>
+ * time:   the difference from the time before, starting from the start time, in nanoseconds,
+ *         zigzag encoded and written as an unsigned LEB128 varint.  Messages in the same batch cost a byte.
+ * length: the length of the message text in bytes, as an unsigned LEB128 varint
+ * text:   the text of every message, one after the other, with nothing in between
+ * </pre>
+ * The time and length columns are kept in memory and the text goes to a temporary file until the
+ * header can be written, so memory use is a few bytes per message.
+ */
+public class ColumnarSink extends FileSink {
+	public static final int MAGIC = 0x4453434C; // "DSCL"
+	public static final int VERSION = 1;
+
+	// A column of varints, growing as needed
+	private static class VarintColumn {
+		private byte[] data = new byte[1 << 12];
+		private int size;
+
+		void put(long value) {
+			if(data.length - size < 10) {
+				data = Arrays.copyOf(data, data.length * 2);
+			}
+			while((value & ~0x7FL) != 0) {
+				data[size++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			data[size++] = (byte) value;
+		}
+	}
+
+	private final File textFile;
+	private final OutputStream text;
+	private final VarintColumn times = new VarintColumn();
+	private final VarintColumn lengths = new VarintColumn();
+	private long startNanos;
+	private long previousNanos;
+	private int count;
+	private long textSize;
+
+	public ColumnarSink(File outputFile) throws IOException {
+		super(outputFile);
+		this.textFile = new File(outputFile.getPath() + ".text.tmp");
+		this.text = new BufferedOutputStream(new FileOutputStream(textFile), OUTPUT_BUFFER_SIZE);
+	}
+
+	@Override
+	public void start(String filename, int version, long startNanos) throws IOException {
+		this.startNanos = startNanos;
+		this.previousNanos = startNanos;
+	}
+
+	@Override
+	public void batch(long timeNanos) throws IOException {
+	}
+
+	@Override
+	public void message(long timeNanos, byte[] bytes, int length) throws IOException {
+		long delta = timeNanos - previousNanos;
+		times.put((delta << 1) ^ (delta >> 63));
+		previousNanos = timeNanos;
+		lengths.put(length);
+		text.write(bytes, 0, length);
+		textSize += length;
+		count++;
+	}
+
+	@Override
+	protected void writeFooter() throws IOException {
+		text.close();
+		DataOutputStream header = new DataOutputStream(out);
+		header.writeInt(MAGIC);
+		header.writeInt(VERSION);
+		header.writeLong(startNanos);
+		header.writeInt(count);
+		header.writeInt(times.size);
+		header.writeInt(lengths.size);
+		header.writeLong(textSize);
+		header.flush();
+		out.write(times.data, 0, times.size);
+		out.write(lengths.data, 0, lengths.size);
+		Files.copy(textFile.toPath(), out);
+		textFile.delete();
+	}
+
+	@Override
+	protected void abort() {
+		try {
+			text.close();
+		} catch(IOException e) {
+			// It's being thrown away anyway
+		}
+		textFile.delete();
+	}
+}
@@ -0,0 +1,51 @@
+package org.usfirst.frc2813.util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * One row per message: nanoseconds since 1970, local time, and the message in double quotes.
+ */
+public class CsvSink extends FileSink {
+	public static final String CSV_HEADER = "time_ns,time,message";
+
+	private final LabVIEWTimestamp timestampFormat = new LabVIEWTimestamp();
+	// The time_ns and time columns, the same for every message in a batch
+	private final byte[] prefix = new byte[20 + 1 + LabVIEWTimestamp.MAX_FORMATTED_LENGTH + 2];
+	private int prefixLength;
+
+	public CsvSink(File outputFile) throws IOException {
+		super(outputFile);
+	}
+
+	@Override
+	public void start(String filename, int version, long startNanos) throws IOException {
+		write(out, CSV_HEADER + "\n");
+	}
+
+	@Override
+	public void batch(long timeNanos) throws IOException {
+		int i = putDecimal(prefix, 0, timeNanos);
+		prefix[i++] = ',';
+		i = timestampFormat.format(timeNanos, prefix, i);
+		prefix[i++] = ',';
+		prefix[i++] = '"';
+		prefixLength = i;
+	}
+
+	@Override
+	public void message(long timeNanos, byte[] text, int length) throws IOException {
+		out.write(prefix, 0, prefixLength);
+		// Quotes are doubled, everything else goes through as is
+		int run = 0;
+		for(int i = 0; i < length; i++) {
+			if(text[i] == '"') {
+				out.write(text, run, i + 1 - run);
+				run = i;
+			}
+		}
+		out.write(text, run, length - run);
+		out.write('"');
+		out.write('\n');
+	}
+}
@@ -0,0 +1,236 @@
+package org.usfirst.frc2813.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming reader for driver station .dsevents files.
+ *
+ * The file is a big endian header (int version, 128 bit timestamp) followed by batches of
+ * messages, each a 128 bit timestamp, an int length and that many bytes of tagged text.
+ *
+ * The file is read through a window mapped from a {@link FileChannel}, so memory use stays the same
+ * no matter how big the file is, and the batch bytes are copied into a buffer that is reused.
+ *
+ * To read a file that is still being written, call {@link #refresh()} to pick up what has been added,
+ * and only read batches that {@link #hasCompleteBatch()} says are all there.
+ */
+public class DSEventsReader implements Closeable {
+	/**
+	 * How much of the file is mapped at a time.  A batch bigger than this gets a bigger window.
+	 */
+	static final int WINDOW_SIZE = 16 << 20;
+	/**
+	 * Version, then timestamp seconds and fraction
+	 */
+	static final int HEADER_SIZE = 4 + 8 + 8;
+	/**
+	 * Timestamp seconds and fraction, then length
+	 */
+	static final int BATCH_HEADER_SIZE = 8 + 8 + 4;
+
+	private final File file;
+	private final FileChannel channel;
+	private long fileLength;
+	private MappedByteBuffer window;
+	// File position of the start of the window
+	private long windowStart;
+
+	private int version;
+	private long startSeconds;
+	private long startFraction;
+
+	private byte[] batch = new byte[4096];
+	private int batchLength;
+	private long batchSeconds;
+	private long batchFraction;
+
+	public DSEventsReader(File file) throws IOException {
+		this.file = file;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		this.fileLength = channel.size();
+		this.windowStart = 0;
+		this.window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(WINDOW_SIZE, fileLength));
+	}
+
+	/**
+	 * Read the file header.  Call this first.
+	 * @return the file format version
+	 * @throws IOException if the file is too short to have a header
+	 */
+	public int readHeader() throws IOException {
+		if(getRemaining() < HEADER_SIZE) {
+			throw new IOException(file + " is too short to be a .dsevents file");
+		}
+		ensure(HEADER_SIZE);
+		version = window.getInt();
+		startSeconds = window.getLong();
+		startFraction = window.getLong();
+		return version;
+	}
+
+	/**
+	 * Read the next batch of messages.  Its text is then available from {@link #getBatch()}.
+	 * @return false at the end of the file
+	 * @throws IOException if the file can't be read
+	 */
+	public boolean nextBatch() throws IOException {
+		long remaining = getRemaining();
+		if(remaining < BATCH_HEADER_SIZE) {
+			if(remaining > 0) {
+				System.out.println("ERROR: " + file + " ends with a partial batch of " + remaining + " bytes.");
+				skip(remaining);
+			}
+			return false;
+		}
+		ensure(BATCH_HEADER_SIZE);
+		batchSeconds = window.getLong();
+		batchFraction = window.getLong();
+		int length = window.getInt();
+		remaining = getRemaining();
+		if(length < 0 || length > remaining) {
+			System.out.println("ERROR: Invalid length.  Wanted " + length + " but got " + remaining);
+			length = (int) remaining;
+		}
+		if(batch.length < length) {
+			batch = new byte[Math.max(length, batch.length * 2)];
+		}
+		ensure(length);
+		window.get(batch, 0, length);
+		batchLength = length;
+		return true;
+	}
+
+	/**
+	 * Pick up anything written to the file since it was opened or last refreshed
+	 * @return true if the file has grown
+	 * @throws IOException if the file got shorter, because it was truncated or replaced
+	 */
+	public boolean refresh() throws IOException {
+		long size = channel.size();
+		if(size < fileLength) {
+			throw new IOException(file + " was truncated from " + fileLength + " to " + size + " bytes");
+		}
+		boolean grown = size > fileLength;
+		fileLength = size;
+		return grown;
+	}
+
+	/**
+	 * @return true if the next batch has been completely written, so {@link #nextBatch()} won't
+	 * find a partial batch at the end of the file
+	 */
+	public boolean hasCompleteBatch() throws IOException {
+		long remaining = getRemaining();
+		if(remaining < BATCH_HEADER_SIZE) {
+			return false;
+		}
+		ensure(BATCH_HEADER_SIZE);
+		int length = window.getInt(window.position() + 8 + 8);
+		// A bad length will never be complete, so let nextBatch() report it
+		return length < 0 || remaining - BATCH_HEADER_SIZE >= length;
+	}
+
+	/**
+	 * Make sure the window holds the next n bytes, moving it forward if it doesn't
+	 */
+	private void ensure(int n) throws IOException {
+		if(window.remaining() >= n) {
+			return;
+		}
+		long position = getPosition();
+		windowStart = position;
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Math.max(WINDOW_SIZE, n), fileLength - position));
+	}
+
+	private void skip(long n) throws IOException {
+		long position = getPosition() + n;
+		windowStart = position;
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, 0);
+	}
+
+	/**
+	 * @return the file position of the next byte to be read
+	 */
+	public long getPosition() {
+		return windowStart + window.position();
+	}
+
+	/**
+	 * @return the number of bytes left to read
+	 */
+	public long getRemaining() {
+		return fileLength - getPosition();
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the whole seconds since 1904 at which the file was started
+	 */
+	public long getStartSeconds() {
+		return startSeconds;
+	}
+
+	/**
+	 * @return the fraction of a second at which the file was started, where 2^64 is one second
+	 */
+	public long getStartFraction() {
+		return startFraction;
+	}
+
+	/**
+	 * @return the time at which the file was started, in nanoseconds since 1970
+	 */
+	public long getStartEpochNanos() {
+		return LabVIEWTimestamp.toEpochNanos(startSeconds, startFraction);
+	}
+
+	/**
+	 * @return the text of the current batch.  Only the first {@link #getBatchLength()} bytes are valid,
+	 * and they are overwritten by the next call to {@link #nextBatch()}.
+	 */
+	public byte[] getBatch() {
+		return batch;
+	}
+
+	public int getBatchLength() {
+		return batchLength;
+	}
+
+	/**
+	 * @return the whole seconds since 1904 of the current batch
+	 */
+	public long getBatchSeconds() {
+		return batchSeconds;
+	}
+
+	/**
+	 * @return the fraction of a second of the current batch, where 2^64 is one second
+	 */
+	public long getBatchFraction() {
+		return batchFraction;
+	}
+
+	/**
+	 * @return the time of the current batch, in nanoseconds since 1970
+	 */
+	public long getBatchEpochNanos() {
+		return LabVIEWTimestamp.toEpochNanos(batchSeconds, batchFraction);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
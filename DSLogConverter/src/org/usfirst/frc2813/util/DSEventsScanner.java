@@ -0,0 +1,168 @@
+package org.usfirst.frc2813.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits a batch of .dsevents text into messages without regular expressions or Strings.
+ *
+ * A batch looks like "&lt;TagVersion&gt;1 &lt;time&gt; 12.345 &lt;message&gt; text &lt;TagVersion&gt;1 ...".
+ * Each message is a slice of the batch, between one &lt;TagVersion&gt; tag and the character before the next.
+ * When a message is written "&lt;time&gt; " becomes "T=" and "&lt;message&gt; " is dropped.
+ * The tags are ASCII, so the message text is copied through byte for byte.
+ *
+ * Usage:
+ * <pre>
+ * scanner.reset(batch, length);
+ * while(scanner.next()) {
+ *     scanner.writeMessage(out);
+ * }
+ * </pre>
+ */
+public class DSEventsScanner {
+	private static final byte[] TAG_VERSION = "<TagVersion>1 ".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] TAG_TIME = "<time> ".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] TAG_MESSAGE = "<message> ".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] TIME_PREFIX = "T=".getBytes(StandardCharsets.US_ASCII);
+
+	private byte[] batch;
+	private int length;
+	// Where the next message starts, or -1 when there are no more
+	private int position;
+	// True once a separator has been found, after which empty messages at the end are dropped
+	private boolean split;
+	private int messageStart;
+	private int messageEnd;
+
+	/**
+	 * Start scanning a batch
+	 * @param batch the batch text.  It must not change until scanning is finished.
+	 * @param length the number of valid bytes in batch
+	 */
+	public void reset(byte[] batch, int length) {
+		this.batch = batch;
+		this.length = length;
+		this.position = startsWith(0, TAG_VERSION) ? TAG_VERSION.length : 0;
+		this.split = false;
+	}
+
+	/**
+	 * Move to the next message
+	 * @return false when there are no more messages
+	 */
+	public boolean next() {
+		if(position < 0) {
+			return false;
+		}
+		int separator = findSeparator(position);
+		if(separator < 0) {
+			messageStart = position;
+			messageEnd = length;
+			position = -1;
+			// Like String.split, an empty message at the end only counts if it's the only one
+			return !split || messageEnd > messageStart;
+		}
+		split = true;
+		messageStart = position;
+		messageEnd = separator;
+		position = separator + 1 + TAG_VERSION.length;
+		if(messageEnd == messageStart && isRestEmpty()) {
+			position = -1;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the offset in the batch of the start of the current message
+	 */
+	public int getMessageStart() {
+		return messageStart;
+	}
+
+	/**
+	 * @return the offset in the batch of the end of the current message, exclusive
+	 */
+	public int getMessageEnd() {
+		return messageEnd;
+	}
+
+	/**
+	 * Write the current message with its &lt;time&gt; and &lt;message&gt; tags replaced
+	 */
+	public void writeMessage(OutputStream out) throws IOException {
+		int run = messageStart;
+		int i = messageStart;
+		while(i < messageEnd) {
+			if(batch[i] == '<') {
+				if(startsWith(i, TAG_TIME, messageEnd)) {
+					out.write(batch, run, i - run);
+					out.write(TIME_PREFIX);
+					i += TAG_TIME.length;
+					run = i;
+					continue;
+				}
+				if(startsWith(i, TAG_MESSAGE, messageEnd)) {
+					out.write(batch, run, i - run);
+					i += TAG_MESSAGE.length;
+					run = i;
+					continue;
+				}
+			}
+			i++;
+		}
+		out.write(batch, run, messageEnd - run);
+	}
+
+	/**
+	 * Find the byte in front of the next &lt;TagVersion&gt; tag.  Anything but a line break will do,
+	 * it's normally a space.
+	 * @return the offset of the separating character, or -1 if there isn't one
+	 */
+	private int findSeparator(int from) {
+		for(int i = from + 1; i <= length - TAG_VERSION.length; i++) {
+			if(batch[i] == '<' && startsWith(i, TAG_VERSION)) {
+				int separator = i - 1;
+				if(batch[separator] != '\n' && batch[separator] != '\r') {
+					return separator;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return true if nothing but separators and empty messages is left
+	 */
+	private boolean isRestEmpty() {
+		int i = position;
+		while(i >= 0) {
+			int separator = findSeparator(i);
+			if(separator < 0) {
+				return i >= length;
+			}
+			if(separator != i) {
+				return false;
+			}
+			i = separator + 1 + TAG_VERSION.length;
+		}
+		return true;
+	}
+
+	private boolean startsWith(int offset, byte[] tag) {
+		return startsWith(offset, tag, length);
+	}
+
+	private boolean startsWith(int offset, byte[] tag, int end) {
+		if(offset + tag.length > end) {
+			return false;
+		}
+		for(int i = 0; i < tag.length; i++) {
+			if(batch[offset + i] != tag[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,112 @@
+package org.usfirst.frc2813.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the throughput of {@link DSEventsScanner} with the regular expressions it replaced.
+ *
+ * Run with a .dsevents file as the argument.  The batches are loaded into memory first, so only
+ * splitting and tag replacement are timed, not reading the file or writing the output.
+ */
+public class DSEventsScannerBenchmark {
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int ROUNDS = 10;
+
+	// Discards its output, except for counting it so the work can't be optimized away
+	private static class CountingOutputStream extends OutputStream {
+		long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+
+	private interface Splitter {
+		void split(byte[] batch, OutputStream out) throws IOException;
+	}
+
+	// What DSLogConverter did before DSEventsScanner
+	private static void splitWithRegex(byte[] batch, OutputStream out) throws IOException {
+		String messageBatch = new String(batch);
+		String[] messages = messageBatch.replaceAll("^<TagVersion>1 ", "").split(".<TagVersion>1 ");
+		for(int i = 0; i < messages.length; i++) {
+			out.write(messages[i].replaceAll("<time> ", "T=").replaceAll("<message> ", "").getBytes());
+			out.write('\n');
+		}
+	}
+
+	private static void splitWithScanner(DSEventsScanner scanner, byte[] batch, OutputStream out) throws IOException {
+		scanner.reset(batch, batch.length);
+		while(scanner.next()) {
+			scanner.writeMessage(out);
+			out.write('\n');
+		}
+	}
+
+	private static byte[] run(List<byte[]> batches, Splitter splitter) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for(byte[] batch : batches) {
+			splitter.split(batch, out);
+		}
+		return out.toByteArray();
+	}
+
+	private static double measure(String name, List<byte[]> batches, long bytes, Splitter splitter) throws IOException {
+		CountingOutputStream out = new CountingOutputStream();
+		for(int round = 0; round < WARMUP_ROUNDS; round++) {
+			for(byte[] batch : batches) {
+				splitter.split(batch, out);
+			}
+		}
+		long start = System.nanoTime();
+		for(int round = 0; round < ROUNDS; round++) {
+			for(byte[] batch : batches) {
+				splitter.split(batch, out);
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		double megabytesPerSecond = bytes * (double) ROUNDS / 1e6 / seconds;
+		System.out.println(String.format("%-8s %8.1f MB/s (%d bytes written)", name, megabytesPerSecond, out.count));
+		return megabytesPerSecond;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if(args.length != 1) {
+			System.err.println("Usage: DSEventsScannerBenchmark <file.dsevents>");
+			System.exit(1);
+		}
+		List<byte[]> batches = new ArrayList<byte[]>();
+		long bytes = 0;
+		try(DSEventsReader reader = new DSEventsReader(new File(args[0]))) {
+			reader.readHeader();
+			while(reader.nextBatch()) {
+				batches.add(Arrays.copyOf(reader.getBatch(), reader.getBatchLength()));
+				bytes += reader.getBatchLength();
+			}
+		}
+		System.out.println(String.format("%d batches, %.1f MB of messages", batches.size(), bytes / 1e6));
+
+		DSEventsScanner scanner = new DSEventsScanner();
+		Splitter regex = DSEventsScannerBenchmark::splitWithRegex;
+		Splitter scan = (batch, out) -> splitWithScanner(scanner, batch, out);
+		if(!Arrays.equals(run(batches, regex), run(batches, scan))) {
+			System.err.println("The scanner's output doesn't match the regular expressions'");
+			System.exit(1);
+		}
+		double before = measure("regex", batches, bytes, regex);
+		double after = measure("scanner", batches, bytes, scan);
+		System.out.println(String.format("%.1fx faster", after / before));
+	}
+}
@@ -0,0 +1,41 @@
+package org.usfirst.frc2813.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Somewhere to write the messages decoded from a .dsevents file.
+ *
+ * {@link DSLogConverter} decodes each file once and hands every message to each of its sinks, so one
+ * read can produce several formats.  Calls arrive in this order: {@link #start(String, int, long)},
+ * then for each batch {@link #batch(long)} followed by its messages, then {@link #finish()}.
+ * Closing a sink that hasn't finished throws away what it wrote.
+ */
+public interface DSEventsSink extends Closeable {
+	/**
+	 * Called once the file header has been read.  Batches only follow for version 3 files.
+	 * @param filename the .dsevents file
+	 * @param version the file format version
+	 * @param startNanos when the file was started, in nanoseconds since 1970
+	 */
+	void start(String filename, int version, long startNanos) throws IOException;
+
+	/**
+	 * Called at the start of each batch
+	 * @param timeNanos the time of the batch, in nanoseconds since 1970
+	 */
+	void batch(long timeNanos) throws IOException;
+
+	/**
+	 * Called for each message, with &lt;time&gt; and &lt;message&gt; tags already replaced
+	 * @param timeNanos the time of the batch the message is in
+	 * @param text the message text, which is only valid until this returns
+	 * @param length the number of bytes of text
+	 */
+	void message(long timeNanos, byte[] text, int length) throws IOException;
+
+	/**
+	 * Called after the last batch.  The output is complete once this returns.
+	 */
+	void finish() throws IOException;
+}
@@ -0,0 +1,275 @@
+package org.usfirst.frc2813.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The 50Hz telemetry from a driver station .dslog file, decoded into parallel arrays, one per column.
+ *
+ * A version 3 file is a header (int version, 128 bit LabVIEW timestamp) followed by 35 byte records,
+ * one every 20ms, all big endian:
+ * <pre>
+ * byte   trip time, in half milliseconds
+ * byte   packet loss, signed, in units of 4%
+ * short  battery voltage, in 1/256 volts
+ * byte   roboRIO CPU, in half percent
+ * byte   status bits, inverted: a bit is 0 when the flag is set.  See the STATUS_ constants.
+ * byte   CAN utilization, in half percent
+ * byte   WiFi signal, in half dB
+ * short  bandwidth, in 1/256 Mb/s
+ * byte   PDP CAN id
+ * 21     PDP currents, 16 channels of 10 bits in 1/8 amps, packed most significant bit first in groups
+ *        of 6 channels padded to 64 bits
+ * 3      PDP resistance, voltage and temperature
+ * </pre>
+ * Record i was taken {@link #RECORD_INTERVAL_NANOS} * i after the start of the file.
+ */
+public class DSLog {
+	public static final int SUPPORTED_VERSION = 3;
+	public static final int HEADER_SIZE = 4 + 8 + 8;
+	public static final int RECORD_SIZE = 35;
+	public static final long RECORD_INTERVAL_NANOS = 20000000L;
+	public static final int PDP_CHANNELS = 16;
+
+	public static final int STATUS_BROWNOUT       = 0x80;
+	public static final int STATUS_WATCHDOG       = 0x40;
+	public static final int STATUS_DS_TELEOP      = 0x20;
+	public static final int STATUS_DS_DISABLED    = 0x08;
+	public static final int STATUS_ROBOT_TELEOP   = 0x04;
+	public static final int STATUS_ROBOT_AUTO     = 0x02;
+	public static final int STATUS_ROBOT_DISABLED = 0x01;
+
+	// In CSV column order
+	private static final int[] STATUS_FLAGS = { STATUS_BROWNOUT, STATUS_WATCHDOG, STATUS_DS_TELEOP, STATUS_DS_DISABLED, STATUS_ROBOT_TELEOP, STATUS_ROBOT_AUTO, STATUS_ROBOT_DISABLED };
+
+	public static final String CSV_HEADER;
+	static {
+		StringBuilder header = new StringBuilder("time_s,trip_time_ms,packet_loss,battery_v,cpu,can_utilization,wifi_db,bandwidth_mbps,brownout,watchdog,ds_teleop,ds_disabled,robot_teleop,robot_auto,robot_disabled");
+		for(int channel = 0; channel < PDP_CHANNELS; channel++) {
+			header.append(",pdp_").append(channel).append("_a");
+		}
+		CSV_HEADER = header.toString();
+	}
+
+	private final File file;
+	private final long startNanos;
+	private final int size;
+	// One entry per record
+	private final double[] tripTimeMillis;
+	private final double[] packetLoss;
+	private final double[] batteryVoltage;
+	private final double[] cpu;
+	private final byte[] status;
+	private final double[] canUtilization;
+	private final double[] wifiDb;
+	private final double[] bandwidthMbps;
+	// pdpCurrents[channel][record], in eighths of an amp
+	private final short[][] pdpCurrents;
+
+	private DSLog(File file, long startNanos, int size) {
+		this.file = file;
+		this.startNanos = startNanos;
+		this.size = size;
+		this.tripTimeMillis = new double[size];
+		this.packetLoss = new double[size];
+		this.batteryVoltage = new double[size];
+		this.cpu = new double[size];
+		this.status = new byte[size];
+		this.canUtilization = new double[size];
+		this.wifiDb = new double[size];
+		this.bandwidthMbps = new double[size];
+		this.pdpCurrents = new short[PDP_CHANNELS][size];
+	}
+
+	/**
+	 * Decode a whole .dslog file.  A partial record at the end is ignored.
+	 * @throws IOException if the file can't be read or isn't a version 3 .dslog
+	 */
+	public static DSLog read(File file) throws IOException {
+		ByteBuffer buffer;
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if(channel.size() < HEADER_SIZE) {
+				throw new IOException(file + " is too short to be a .dslog file");
+			}
+			if(channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is too big to be a .dslog file");
+			}
+			// The mapping outlives the channel
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		int version = buffer.getInt();
+		if(version != SUPPORTED_VERSION) {
+			throw new IOException(file + " is .dslog version " + version + ", only version " + SUPPORTED_VERSION + " is supported");
+		}
+		long startNanos = LabVIEWTimestamp.toEpochNanos(buffer.getLong(), buffer.getLong());
+		DSLog log = new DSLog(file, startNanos, buffer.remaining() / RECORD_SIZE);
+		for(int i = 0; i < log.size; i++) {
+			log.decode(buffer, HEADER_SIZE + i * RECORD_SIZE, i);
+		}
+		return log;
+	}
+
+	private void decode(ByteBuffer buffer, int offset, int i) {
+		tripTimeMillis[i] = (buffer.get(offset) & 0xFF) * 0.5;
+		packetLoss[i] = Math.max(0, Math.min(1, buffer.get(offset + 1) * 0.04));
+		batteryVoltage[i] = (buffer.getShort(offset + 2) & 0xFFFF) / 256.0;
+		cpu[i] = (buffer.get(offset + 4) & 0xFF) * 0.005;
+		status[i] = (byte) ~buffer.get(offset + 5);
+		canUtilization[i] = (buffer.get(offset + 6) & 0xFF) * 0.005;
+		wifiDb[i] = (buffer.get(offset + 7) & 0xFF) * 0.5;
+		bandwidthMbps[i] = (buffer.getShort(offset + 8) & 0xFFFF) / 256.0;
+		int currents = offset + 11;
+		for(int channel = 0; channel < PDP_CHANNELS; channel++) {
+			int bit = channel * 10 + channel / 6 * 4;
+			// The 10 bits are somewhere in these three bytes
+			int first = currents + bit / 8;
+			int word = ((buffer.get(first) & 0xFF) << 16) | ((buffer.get(first + 1) & 0xFF) << 8) | (buffer.get(first + 2) & 0xFF);
+			pdpCurrents[channel][i] = (short) ((word >>> (14 - bit % 8)) & 0x3FF);
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the number of records
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return when the first record was taken, in nanoseconds since 1970
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * @return when record i was taken, in nanoseconds since 1970
+	 */
+	public long getTimeNanos(int i) {
+		return startNanos + i * RECORD_INTERVAL_NANOS;
+	}
+
+	public double getTripTimeMillis(int i) {
+		return tripTimeMillis[i];
+	}
+
+	/**
+	 * @return the fraction of packets lost, 0 to 1
+	 */
+	public double getPacketLoss(int i) {
+		return packetLoss[i];
+	}
+
+	public double getBatteryVoltage(int i) {
+		return batteryVoltage[i];
+	}
+
+	/**
+	 * @return roboRIO CPU use, 0 to 1
+	 */
+	public double getCpu(int i) {
+		return cpu[i];
+	}
+
+	/**
+	 * @return CAN bus utilization, 0 to 1
+	 */
+	public double getCanUtilization(int i) {
+		return canUtilization[i];
+	}
+
+	public double getWifiDb(int i) {
+		return wifiDb[i];
+	}
+
+	public double getBandwidthMbps(int i) {
+		return bandwidthMbps[i];
+	}
+
+	/**
+	 * @param flag one of the STATUS_ constants
+	 */
+	public boolean isStatus(int i, int flag) {
+		return (status[i] & flag) != 0;
+	}
+
+	public double getPdpCurrent(int channel, int i) {
+		return pdpCurrents[channel][i] / 8.0;
+	}
+
+	/**
+	 * Write one row per record, starting with {@link #CSV_HEADER}.  Time is in seconds from the start of the file.
+	 */
+	public void writeCsv(Writer out) throws IOException {
+		StringBuilder row = new StringBuilder(256);
+		out.write(CSV_HEADER);
+		out.write('\n');
+		for(int i = 0; i < size; i++) {
+			row.setLength(0);
+			row.append(i * RECORD_INTERVAL_NANOS / 1e9).append(',');
+			row.append(tripTimeMillis[i]).append(',');
+			row.append(packetLoss[i]).append(',');
+			row.append(batteryVoltage[i]).append(',');
+			row.append(cpu[i]).append(',');
+			row.append(canUtilization[i]).append(',');
+			row.append(wifiDb[i]).append(',');
+			row.append(bandwidthMbps[i]);
+			for(int flag : STATUS_FLAGS) {
+				row.append(',').append(isStatus(i, flag) ? 1 : 0);
+			}
+			for(int channel = 0; channel < PDP_CHANNELS; channel++) {
+				row.append(',').append(getPdpCurrent(channel, i));
+			}
+			row.append('\n');
+			out.append(row);
+		}
+	}
+
+	/**
+	 * Convert a .dslog, or every .dslog in a directory, to a .csv next to it
+	 */
+	private static void process(File f) throws IOException {
+		if(f.isDirectory()) {
+			for(File child : f.listFiles((dir, name) -> name.endsWith(".dslog"))) {
+				process(child);
+			}
+			return;
+		}
+		String name = f.getName().endsWith(".dslog") ? f.getName().substring(0, f.getName().length() - ".dslog".length()) : f.getName();
+		File csv = new File(f.getParentFile(), name + ".csv");
+		long start = System.nanoTime();
+		DSLog log = read(f);
+		long decoded = System.nanoTime();
+		try(Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csv), StandardCharsets.UTF_8))) {
+			log.writeCsv(out);
+		}
+		System.out.println(String.format("%s -> %s (%d records, decoded in %.1fms)", f, csv, log.size(), (decoded - start) / 1e6));
+	}
+
+	public static void main(String[] args) {
+		if(args.length == 0) {
+			System.err.println("Usage: DSLog <file.dslog or directory>...");
+			System.exit(1);
+		}
+		try {
+			for(String arg : args) {
+				process(new File(arg));
+			}
+		} catch(Throwable t) {
+			t.printStackTrace();
+			System.exit(1);
+		}
+	}
+}
@@ -1,179 +1,334 @@
 package org.usfirst.frc2813.util;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DSLogConverter {
+	private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+	private static final String DEFAULT_LOG_DIRECTORY = "C:\\Users\\Public\\Documents\\FRC\\Log Files";
+	// How long --follow waits for more to be written, doubling up to the maximum while nothing is
+	private static final long FOLLOW_MIN_POLL_MILLIS = 50;
+	private static final long FOLLOW_MAX_POLL_MILLIS = 1000;
 	private final String filename;
-	private final String outputFilename;
-	private final int fileLength; 
 	private final File file;
-	private final byte[] buffer;
-	private int offset = 0;
-	private int version = 0;
-	private Date date = null;
-	private int milliseconds = 0;
+	private final Set<OutputFormat> formats;
 
-	private static final SimpleDateFormat dateFormat = new SimpleDateFormat("h:mm:ss");
-	private static final String LINE = "------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------\n";
+	private final DSEventsScanner scanner = new DSEventsScanner();
+	private final MessageBuffer message = new MessageBuffer();
 
-	public DSLogConverter(String filename) throws IOException {
-		this.filename = filename;
-		this.outputFilename = filename.endsWith(".dsevents") ? filename.replaceAll(".dsevents$", ".log") : filename + ".log";
-		this.file = new File(filename);
-		this.fileLength = (int) file.length();
-		this.buffer = new byte[fileLength];
-		System.out.println("Processing " + filename + "\n      Into " + outputFilename);
-		readFile();
+	// Holds each message while it's handed to the sinks
+	private static class MessageBuffer extends ByteArrayOutputStream {
+		byte[] getBuffer() {
+			return buf;
+		}
 	}
 
-	private void readFile() 
-			throws IOException 
-	{
-		FileInputStream in = new FileInputStream(file);
-		// Read the whole file
-		int bytesRead = in.read(buffer);
-		if(bytesRead != file.length()) {
-			in.close();
-			throw new RuntimeException("Error reading the file: " + filename);
-		}
-		// Close the file
-		in.close();
-	}
-	
-	public int readVersion() {
-		return readUint32(); 
+	public DSLogConverter(String filename) throws IOException {
+		this(filename, EnumSet.of(OutputFormat.LOG));
 	}
 
-	// NB: Big endian
-	private int readUint32() {
-		int x = 0;
-		x |= (((int)buffer[offset+0] & 0xff) << 24);
-		x |= (((int)buffer[offset+1] & 0xff) << 16);
-		x |= (((int)buffer[offset+2] & 0xff) <<  8);
-		x |= (((int)buffer[offset+3] & 0xff) <<  0);
-		offset += 4;
-		return (int)x;
+	public DSLogConverter(String filename, Set<OutputFormat> formats) throws IOException {
+		this.filename = filename;
+		this.file = new File(filename);
+		this.formats = formats;
 	}
 
-	// NB: Big endian
-	private long readUint64() {
-		long x = 0;
-		x |= (((long)buffer[offset+0] & 0xff) << 56);
-		x |= (((long)buffer[offset+1] & 0xff) << 48);
-		x |= (((long)buffer[offset+2] & 0xff) << 40);
-		x |= (((long)buffer[offset+3] & 0xff) << 32);
-		x |= (((long)buffer[offset+4] & 0xff) << 24);
-		x |= (((long)buffer[offset+5] & 0xff) << 16);
-		x |= (((long)buffer[offset+6] & 0xff) <<  8);
-		x |= (((long)buffer[offset+7] & 0xff) <<  0);
-		offset += 8;
-		return x & 0xffffffffffffffffl;
+	/**
+	 * @return true if every output was written after the last change to the input
+	 */
+	private boolean isUpToDate() {
+		for(OutputFormat format : formats) {
+			if(!format.isUpToDate(file)) {
+				return false;
+			}
+		}
+		return true;
 	}
-	
-	private String[] readMessageBatch() {
-		int messageLength = readUint32();
-		if((offset+messageLength) > fileLength) {
-			System.out.println("ERROR: Invalid length.  Wanted " + messageLength + " but got " + (fileLength - offset));
-			messageLength = fileLength - offset;
-		}
-		String messageBatch = new String(buffer,offset,messageLength);
-		String[] messages = messageBatch.replaceAll("^<TagVersion>1 ", "").split(".<TagVersion>1 ");
-		for(int i = 0; i < messages.length; i++) {
-			messages[i] = messages[i].replaceAll("<time> ", "T=").replaceAll("<message> ", "");
-		}
-		offset += messageLength;
-		return messages;
+
+	private void convert() 
+		throws IOException 
+	{
+		StringBuilder outputs = new StringBuilder();
+		for(OutputFormat format : formats) {
+			outputs.append(outputs.length() == 0 ? "" : "\n           ").append(format.getOutputFile(file));
+		}
+		System.out.println("Processing " + filename + "\n      Into " + outputs);
+		List<DSEventsSink> sinks = new ArrayList<DSEventsSink>();
+		// Stream the file through a mapped window, so memory use doesn't grow with the file
+		try(DSEventsReader reader = new DSEventsReader(file)) {
+			for(OutputFormat format : formats) {
+				sinks.add(format.createSink(format.getOutputFile(file)));
+			}
+			// Parse the file
+			int version = reader.readHeader();
+			for(DSEventsSink sink : sinks) {
+				sink.start(filename, version, reader.getStartEpochNanos());
+			}
+			if(version == 3) {
+				while(reader.nextBatch()) {
+					decodeBatch(reader, sinks);
+				}
+			}
+			for(DSEventsSink sink : sinks) {
+				sink.finish();
+			}
+		} finally {
+			// Throws away the output of any sink that didn't finish
+			for(DSEventsSink sink : sinks) {
+				sink.close();
+			}
+		}
 	}
 
-	private Date readDate() {
-		// Convert to milliseconds since epoch
-		java.util.Date time = new java.util.Date((long)readUint64()*1000);
-		// Epoch is 1904, not 1970 so adjust
-		int year_offset = 1904-1970;
-		time.setYear(time.getYear() + year_offset);
-		// Return the result
-		return time;
+	/**
+	 * Decode the current batch once, and hand each message to every sink
+	 */
+	private void decodeBatch(DSEventsReader reader, List<DSEventsSink> sinks) throws IOException {
+		long timeNanos = reader.getBatchEpochNanos();
+		for(DSEventsSink sink : sinks) {
+			sink.batch(timeNanos);
+		}
+		scanner.reset(reader.getBatch(), reader.getBatchLength());
+		while(scanner.next()) {
+			message.reset();
+			scanner.writeMessage(message);
+			for(DSEventsSink sink : sinks) {
+				sink.message(timeNanos, message.getBuffer(), message.size());
+			}
+		}
 	}
 
-	private int readMilliseconds() {
-		long raw = readUint64();
-		// convert from Java's lame signed-only idea of a long int to an unsigned 64-bit int
-		BigDecimal d = new BigDecimal(raw & ~0x8000000000000000l);
-		if((raw & 0x8000000000000000l) != 0) {
-			d.add(new BigDecimal("9223372036854775808"));
+	/**
+	 * Print the events in the file as they are written, like tail -f.  The file is kept open and only
+	 * the batches added since the last poll are decoded.
+	 * @param directory if not null, stop following when a newer file shows up in this directory
+	 * @return the newer file, or null if following a single file that is unsupported
+	 */
+	private File follow(OutputStream out, File directory) throws IOException, InterruptedException {
+		List<DSEventsSink> sinks = Collections.<DSEventsSink>singletonList(new TextLogSink(out));
+		try(DSEventsReader reader = new DSEventsReader(file)) {
+			long poll = FOLLOW_MIN_POLL_MILLIS;
+			// The driver station creates the file before it writes the header
+			while(reader.getRemaining() < DSEventsReader.HEADER_SIZE) {
+				Thread.sleep(poll);
+				poll = Math.min(poll * 2, FOLLOW_MAX_POLL_MILLIS);
+				reader.refresh();
+			}
+			int version = reader.readHeader();
+			sinks.get(0).start(filename, version, reader.getStartEpochNanos());
+			if(version != 3) {
+				out.flush();
+				// Nothing to decode in this one, but the next one may be readable
+				return directory == null ? null : waitForNewerFile(directory);
+			}
+			while(true) {
+				boolean found = false;
+				while(reader.hasCompleteBatch()) {
+					reader.nextBatch();
+					decodeBatch(reader, sinks);
+					found = true;
+				}
+				out.flush();
+				if(found) {
+					poll = FOLLOW_MIN_POLL_MILLIS;
+				} else {
+					File newest = directory == null ? null : findNewest(directory);
+					if(newest != null && !newest.equals(file)) {
+						return newest;
+					}
+					Thread.sleep(poll);
+					poll = Math.min(poll * 2, FOLLOW_MAX_POLL_MILLIS);
+				}
+				reader.refresh();
+			}
 		}
-		// Now return three decimal places of fractional seconds where one second is MAX_UINT64
-		return d.multiply(new BigDecimal(1000)).divide(new BigDecimal("18446744073709551615"), BigDecimal.ROUND_HALF_UP).intValue();
 	}
 
-	private String formatTimestamp(Date time, int milliseconds) {
-		return String.format("%s.%03d", dateFormat.format(time), milliseconds);
+	/**
+	 * Wait until a file other than this one is the newest in the directory
+	 * @return the newer file
+	 */
+	private File waitForNewerFile(File directory) throws InterruptedException {
+		while(true) {
+			File newest = findNewest(directory);
+			if(newest != null && !newest.equals(file)) {
+				return newest;
+			}
+			Thread.sleep(FOLLOW_MAX_POLL_MILLIS);
+		}
 	}
 
-	private void convert() 
-		throws IOException 
-	{
-		FileOutputStream f = new FileOutputStream(outputFilename);
-		OutputStreamWriter osw = new OutputStreamWriter(f);
-		// Parse the file
-		this.version = readVersion(); 
-		this.date = readDate();
-		this.milliseconds = readMilliseconds();
-		osw.write(LINE);
-		osw.write("Original: " + filename + "\n");
-		osw.write("Version: " + version + "\n");
-		osw.write("Timestamp: " + formatTimestamp(date, milliseconds) + "\n");
-		osw.write(LINE);
-		if(this.version != 3) {
-			osw.write("Unsupported Version.");
-		} else {
-			while(offset < fileLength) {
-				// Read the timing info
-				Date msgTime = readDate();
-				int msgMilliseconds = readMilliseconds();
-				// Read the messages
-				for(String msg : readMessageBatch()) {
-					osw.write(formatTimestamp(msgTime, msgMilliseconds) + " " + msg + "\n");
+	/**
+	 * @return the most recently modified .dsevents in a directory, or null if there aren't any
+	 */
+	private static File findNewest(File directory) {
+		File newest = null;
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(".dsevents"));
+		if(files != null) {
+			for(File f : files) {
+				if(newest == null || f.lastModified() > newest.lastModified()) {
+					newest = f;
 				}
 			}
 		}
-		osw.write(LINE);
-		osw.write("End of file.\n");
-		osw.write(LINE);
-		osw.flush();
-		f.flush();
-		f.close();
+		return newest;
 	}
 
-	private static void process(String path) throws IOException {
+	/**
+	 * Follow a file, or the newest file in a directory and then each one after it, until interrupted
+	 */
+	private static void follow(String path) throws IOException, InterruptedException {
 		File f = new File(path);
+		File directory = f.isDirectory() ? f : null;
+		File current = directory == null ? f : findNewest(directory);
+		while(current == null) {
+			Thread.sleep(FOLLOW_MAX_POLL_MILLIS);
+			current = findNewest(directory);
+		}
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE);
+		while(current != null) {
+			current = new DSLogConverter(current.getPath()).follow(out, directory);
+		}
+	}
+
+	/**
+	 * Find the files to convert.  Files named on the command line are always converted, files found in
+	 * a directory only if their output is missing or older than they are, unless force is set.
+	 * @return the number of files skipped because they were up to date
+	 */
+	private static int process(String path, Set<OutputFormat> formats, boolean force, List<DSLogConverter> converters) throws IOException {
+		File f = new File(path);
+		int skipped = 0;
 		if(f.isDirectory()) {
 			for(String filename : f.list()) {
 				if(filename.endsWith(".dsevents")) {
-					new DSLogConverter(f.getPath() + File.separatorChar + filename).convert();
+					DSLogConverter converter = new DSLogConverter(f.getPath() + File.separatorChar + filename, formats);
+					if(!force && converter.isUpToDate()) {
+						skipped++;
+					} else {
+						add(converters, converter);
+					}
 				}
 			}
 		} else {
-			new DSLogConverter(path).convert();
+			add(converters, new DSLogConverter(path, formats));
 		}
+		return skipped;
 	}
-	
+
+	/**
+	 * Add a file unless it's already there, so two threads never write the same output
+	 */
+	private static void add(List<DSLogConverter> converters, DSLogConverter converter) throws IOException {
+		String path = converter.file.getCanonicalPath();
+		for(DSLogConverter other : converters) {
+			if(other.file.getCanonicalPath().equals(path)) {
+				return;
+			}
+		}
+		converters.add(converter);
+	}
+
+	/**
+	 * Convert files in parallel, one per core.  A file that fails is reported, and the others carry on.
+	 * @return the number of files that failed
+	 */
+	private static int convertAll(List<DSLogConverter> converters) throws InterruptedException {
+		if(converters.isEmpty()) {
+			return 0;
+		}
+		int threads = Math.min(Runtime.getRuntime().availableProcessors(), converters.size());
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CompletionService<DSLogConverter> completed = new ExecutorCompletionService<DSLogConverter>(pool);
+		for(DSLogConverter converter : converters) {
+			completed.submit(() -> { converter.convert(); return converter; });
+		}
+		pool.shutdown();
+		int failed = 0;
+		long bytes = 0;
+		for(int i = 0; i < converters.size(); i++) {
+			Future<DSLogConverter> result = completed.take();
+			try {
+				DSLogConverter converter = result.get();
+				bytes += converter.file.length();
+				System.out.println(String.format("[%d/%d] Converted %s", i + 1, converters.size(), converter.filename));
+			} catch(ExecutionException e) {
+				failed++;
+				System.out.println(String.format("[%d/%d] FAILED: %s", i + 1, converters.size(), e.getCause()));
+			}
+		}
+		System.out.println(String.format("%d converted (%.1f MB) with %d threads, %d failed.", converters.size() - failed, bytes / 1e6, threads, failed));
+		return failed;
+	}
+
 	public static void main(String[] args) throws IOException {
 		try {
-			File f = null;
-			if(args.length == 0) {
-				process("C:\\Users\\Public\\Documents\\FRC\\Log Files");
-			} else {
-				for(String arg : args) {
-					process(arg);
+			boolean force = false;
+			boolean follow = false;
+			Set<OutputFormat> formats = EnumSet.of(OutputFormat.LOG);
+			List<String> paths = new ArrayList<String>();
+			for(int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				if(arg.equals("--force")) {
+					force = true;
+				} else if(arg.equals("--follow")) {
+					follow = true;
+				} else if(arg.equals("--format") && i + 1 < args.length) {
+					// e.g. --format log,csv,ndjson,columnar
+					formats = EnumSet.noneOf(OutputFormat.class);
+					for(String format : args[++i].split(",")) {
+						try {
+							formats.add(OutputFormat.valueOf(format.trim().toUpperCase()));
+						} catch(IllegalArgumentException e) {
+							System.err.println("Unknown format " + format + ", expected some of " + Arrays.toString(OutputFormat.values()).toLowerCase());
+							System.exit(1);
+						}
+					}
+				} else {
+					paths.add(arg);
+				}
+			}
+			if(paths.isEmpty()) {
+				paths.add(DEFAULT_LOG_DIRECTORY);
+			}
+			if(follow) {
+				if(paths.size() != 1) {
+					System.err.println("Usage: DSLogConverter --follow [file.dsevents or directory]");
+					System.exit(1);
 				}
+				follow(paths.get(0));
+				return;
+			}
+			List<DSLogConverter> converters = new ArrayList<DSLogConverter>();
+			int skipped = 0;
+			for(String path : paths) {
+				skipped += process(path, formats, force, converters);
+			}
+			if(skipped > 0) {
+				System.out.println(skipped + " files are already up to date.  Use --force to convert them again.");
+			}
+			long start = System.currentTimeMillis();
+			int failed = convertAll(converters);
+			System.out.println(String.format("Done in %.1f seconds.", (System.currentTimeMillis() - start) / 1000.0));
+			if(failed > 0) {
+				System.exit(1);
 			}
 		} catch(Throwable t) {
 			t.printStackTrace();
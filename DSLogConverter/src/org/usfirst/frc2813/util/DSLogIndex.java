@@ -0,0 +1,166 @@
+package org.usfirst.frc2813.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Sparse time index for a converted .log, written next to it as .log.idx.
+ *
+ * The messages in the log are split into blocks of about {@link #BLOCK_SIZE} bytes, always on a batch
+ * boundary.  For each block the index has its byte offset in the log and the earliest and latest batch
+ * time in it, so a query can seek straight to the blocks covering a time range.  Times are in nanoseconds since 1970.
+ *
+ * The file is big endian: int MAGIC, int VERSION, long start time of the original file, int block count,
+ * long end offset of the last block, then per block long offset, long earliest time, long latest time.
+ */
+public class DSLogIndex {
+	public static final String SUFFIX = ".idx";
+	public static final int MAGIC = 0x44534958; // "DSIX"
+	public static final int VERSION = 1;
+	/**
+	 * Roughly how much of the log each entry covers
+	 */
+	public static final int BLOCK_SIZE = 64 << 10;
+
+	private long startNanos;
+	private int size;
+	private long[] offsets = new long[64];
+	private long[] minNanos = new long[64];
+	private long[] maxNanos = new long[64];
+	private long endOffset;
+
+	/**
+	 * Start an empty index, to be filled in with {@link #add(long, long)} while the log is written
+	 * @param startNanos when the original file was started
+	 */
+	public DSLogIndex(long startNanos) {
+		this.startNanos = startNanos;
+	}
+
+	/**
+	 * @param file a .log, or its index
+	 * @return where the index for a log is kept
+	 */
+	public static File getIndexFile(File file) {
+		return file.getName().endsWith(SUFFIX) ? file : new File(file.getPath() + SUFFIX);
+	}
+
+	/**
+	 * Record the start of a batch.  Call in the order batches are written.
+	 * @param offset where in the log the batch's first line starts
+	 * @param nanos the time of the batch
+	 */
+	public void add(long offset, long nanos) {
+		if(size > 0 && offset - offsets[size - 1] < BLOCK_SIZE) {
+			minNanos[size - 1] = Math.min(minNanos[size - 1], nanos);
+			maxNanos[size - 1] = Math.max(maxNanos[size - 1], nanos);
+			return;
+		}
+		if(size == offsets.length) {
+			offsets = Arrays.copyOf(offsets, size * 2);
+			minNanos = Arrays.copyOf(minNanos, size * 2);
+			maxNanos = Arrays.copyOf(maxNanos, size * 2);
+		}
+		offsets[size] = offset;
+		minNanos[size] = nanos;
+		maxNanos[size] = nanos;
+		size++;
+	}
+
+	/**
+	 * Record where the messages end
+	 */
+	public void finish(long endOffset) {
+		this.endOffset = endOffset;
+	}
+
+	public void write(File file) throws IOException {
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(startNanos);
+			out.writeInt(size);
+			out.writeLong(endOffset);
+			for(int i = 0; i < size; i++) {
+				out.writeLong(offsets[i]);
+				out.writeLong(minNanos[i]);
+				out.writeLong(maxNanos[i]);
+			}
+		}
+	}
+
+	/**
+	 * @throws IOException if the file can't be read or isn't an index
+	 */
+	public static DSLogIndex read(File file) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if(in.readInt() != MAGIC) {
+				throw new IOException(file + " is not a log index");
+			}
+			int version = in.readInt();
+			if(version != VERSION) {
+				throw new IOException(file + " is index version " + version + ", expected " + VERSION);
+			}
+			DSLogIndex index = new DSLogIndex(in.readLong());
+			int size = in.readInt();
+			index.endOffset = in.readLong();
+			index.size = size;
+			index.offsets = new long[size];
+			index.minNanos = new long[size];
+			index.maxNanos = new long[size];
+			for(int i = 0; i < size; i++) {
+				index.offsets[i] = in.readLong();
+				index.minNanos[i] = in.readLong();
+				index.maxNanos[i] = in.readLong();
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * @return when the original file was started, in nanoseconds since 1970
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * @return the number of blocks
+	 */
+	public int size() {
+		return size;
+	}
+
+	public long getBlockStart(int block) {
+		return offsets[block];
+	}
+
+	/**
+	 * @return the offset just after the block
+	 */
+	public long getBlockEnd(int block) {
+		return block + 1 < size ? offsets[block + 1] : endOffset;
+	}
+
+	public long getMinNanos(int block) {
+		return minNanos[block];
+	}
+
+	public long getMaxNanos(int block) {
+		return maxNanos[block];
+	}
+
+	/**
+	 * @return true if any of the block's batches could be between from and to, inclusive
+	 */
+	public boolean overlaps(int block, long from, long to) {
+		return maxNanos[block] >= from && minNanos[block] <= to;
+	}
+}
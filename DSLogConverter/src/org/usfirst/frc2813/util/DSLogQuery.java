@@ -0,0 +1,213 @@
+package org.usfirst.frc2813.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+
+/**
+ * Searches converted logs by time and text, using their {@link DSLogIndex} to read only the blocks
+ * that cover the times asked for.
+ *
+ * Usage: DSLogQuery [--from time] [--to time] [--grep text] [--regex pattern] log or directory...
+ *
+ * Times are either a date and time, like 2018-03-10T14:05:30, or just a time of day (24 hour) like 14:05:30.5,
+ * which means that time on the day each log was started.  A --to time of day earlier than --from means the next day.
+ * Matching lines are printed with the name of their log.
+ */
+public class DSLogQuery {
+	private static final long MILLIS_PER_HALF_DAY = 12 * 60 * 60 * 1000L;
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	private final String from;
+	private final String to;
+	private final String substring;
+	private final Pattern regex;
+	private final TimeZone timeZone = TimeZone.getDefault();
+	private byte[] buffer = new byte[DSLogIndex.BLOCK_SIZE * 2];
+	private int matches;
+
+	public DSLogQuery(String from, String to, String substring, Pattern regex) {
+		this.from = from;
+		this.to = to;
+		this.substring = substring;
+		this.regex = regex;
+	}
+
+	/**
+	 * @param time a date and time, or a time of day
+	 * @param startNanos when the log was started, which a time of day is relative to
+	 * @param days how many days after the log was started a time of day is
+	 * @return the time in milliseconds since 1970
+	 */
+	static long parseTime(String time, long startNanos, int days) {
+		ZoneId zone = ZoneId.systemDefault();
+		if(time.indexOf('T') >= 0) {
+			return LocalDateTime.parse(time).atZone(zone).toInstant().toEpochMilli();
+		}
+		LocalDate date = Instant.ofEpochMilli(Math.floorDiv(startNanos, NANOS_PER_MILLI)).atZone(zone).toLocalDate().plusDays(days);
+		return date.atTime(LocalTime.parse(time)).atZone(zone).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * Print the matching lines of a log
+	 * @throws IOException if the log or its index can't be read
+	 */
+	public void query(File log) throws IOException {
+		DSLogIndex index = DSLogIndex.read(DSLogIndex.getIndexFile(log));
+		long fromMillis = from == null ? Long.MIN_VALUE : parseTime(from, index.getStartNanos(), 0);
+		long toMillis = to == null ? Long.MAX_VALUE : parseTime(to, index.getStartNanos(), 0);
+		if(toMillis < fromMillis) {
+			toMillis = parseTime(to, index.getStartNanos(), 1);
+		}
+		long fromNanos = from == null ? Long.MIN_VALUE : fromMillis * NANOS_PER_MILLI;
+		long toNanos = to == null ? Long.MAX_VALUE : (toMillis + 1) * NANOS_PER_MILLI - 1;
+		try(RandomAccessFile file = new RandomAccessFile(log, "r")) {
+			for(int block = 0; block < index.size(); block++) {
+				if(!index.overlaps(block, fromNanos, toNanos)) {
+					continue;
+				}
+				long lineMillis = Math.floorDiv(index.getMinNanos(block), NANOS_PER_MILLI);
+				int length = (int) (index.getBlockEnd(block) - index.getBlockStart(block));
+				if(buffer.length < length) {
+					buffer = new byte[length];
+				}
+				file.seek(index.getBlockStart(block));
+				file.readFully(buffer, 0, length);
+				int lineStart = 0;
+				for(int i = 0; i < length; i++) {
+					if(buffer[i] == '\n') {
+						lineMillis = queryLine(log, new String(buffer, lineStart, i - lineStart), lineMillis, fromMillis, toMillis);
+						lineStart = i + 1;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Print a line if it matches
+	 * @param previousMillis the time of the line before, or of the start of the block
+	 * @return the time of the line
+	 */
+	private long queryLine(File log, String line, long previousMillis, long fromMillis, long toMillis) {
+		long millis = getLineMillis(line, previousMillis);
+		if(millis >= fromMillis && millis <= toMillis
+				&& (substring == null || line.contains(substring))
+				&& (regex == null || regex.matcher(line).find()))
+		{
+			matches++;
+			System.out.println(log.getName() + ": " + line);
+		}
+		return millis;
+	}
+
+	/**
+	 * Lines only have a 12 hour time of day, so they're placed at the matching time closest to the line before.
+	 * Batches are close together, even when they're slightly out of order, so that's always the right one.
+	 * @return the time of a line in milliseconds since 1970, or previousMillis if it doesn't start with
+	 * a time, because it's the continuation of a message with more than one line
+	 */
+	private long getLineMillis(String line, long previousMillis) {
+		int space = line.indexOf(' ');
+		if(space < 0) {
+			return previousMillis;
+		}
+		String[] fields = line.substring(0, space).split("[:.]");
+		if(fields.length != 4) {
+			return previousMillis;
+		}
+		long lineMillis;
+		try {
+			lineMillis = ((Integer.parseInt(fields[0]) % 12 * 60L + Integer.parseInt(fields[1])) * 60 + Integer.parseInt(fields[2])) * 1000 + Integer.parseInt(fields[3]);
+		} catch(NumberFormatException e) {
+			return previousMillis;
+		}
+		long previousLocalMillis = Math.floorMod(previousMillis + timeZone.getOffset(previousMillis), MILLIS_PER_HALF_DAY);
+		return previousMillis + Math.floorMod(lineMillis - previousLocalMillis + MILLIS_PER_HALF_DAY / 2, MILLIS_PER_HALF_DAY) - MILLIS_PER_HALF_DAY / 2;
+	}
+
+	public int getMatches() {
+		return matches;
+	}
+
+	/**
+	 * @return the logs in a directory that have an index, or the file itself
+	 */
+	private static List<File> findLogs(File f) {
+		List<File> logs = new ArrayList<File>();
+		if(f.isDirectory()) {
+			File[] children = f.listFiles((dir, name) -> name.endsWith(".log") && new File(dir, name + DSLogIndex.SUFFIX).exists());
+			Arrays.sort(children);
+			logs.addAll(Arrays.asList(children));
+		} else {
+			logs.add(f);
+		}
+		return logs;
+	}
+
+	private static void usage() {
+		System.err.println("Usage: DSLogQuery [--from time] [--to time] [--grep text] [--regex pattern] <log or directory>...");
+		System.err.println("Times are like 2018-03-10T14:05:30, or a time of day like 14:05:30.5 on the day each log started.");
+		System.exit(1);
+	}
+
+	public static void main(String[] args) {
+		String from = null;
+		String to = null;
+		String substring = null;
+		Pattern regex = null;
+		List<File> logs = new ArrayList<File>();
+		for(int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if(arg.startsWith("--") && i + 1 >= args.length) {
+				usage();
+			}
+			switch(arg) {
+			case "--from":
+				from = args[++i];
+				break;
+			case "--to":
+				to = args[++i];
+				break;
+			case "--grep":
+				substring = args[++i];
+				break;
+			case "--regex":
+				regex = Pattern.compile(args[++i]);
+				break;
+			default:
+				if(arg.startsWith("--")) {
+					usage();
+				}
+				logs.addAll(findLogs(new File(arg)));
+			}
+		}
+		if(logs.isEmpty()) {
+			usage();
+		}
+		DSLogQuery query = new DSLogQuery(from, to, substring, regex);
+		int failed = 0;
+		for(File log : logs) {
+			try {
+				query.query(log);
+			} catch(IOException | RuntimeException e) {
+				failed++;
+				System.err.println("ERROR: " + log + ": " + e);
+			}
+		}
+		System.err.println(query.getMatches() + " matching lines in " + logs.size() + " logs.");
+		if(failed > 0) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package org.usfirst.frc2813.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A sink that writes one output file.  The output is written to a temporary file that is moved into
+ * place when it is finished, so a failed conversion never leaves an output that looks up to date.
+ */
+public abstract class FileSink implements DSEventsSink {
+	protected static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+	private final File outputFile;
+	private final File temporaryFile;
+	protected final OutputStream out;
+	private boolean finished;
+
+	/**
+	 * Write to a file
+	 */
+	protected FileSink(File outputFile) throws IOException {
+		this.outputFile = outputFile;
+		this.temporaryFile = new File(outputFile.getPath() + ".tmp");
+		this.out = new BufferedOutputStream(new FileOutputStream(temporaryFile), OUTPUT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Write to a stream, which is flushed but not closed when the sink is
+	 */
+	protected FileSink(OutputStream out) {
+		this.outputFile = null;
+		this.temporaryFile = null;
+		this.out = out;
+	}
+
+	/**
+	 * @return the file being written, or null when writing to a stream
+	 */
+	public File getOutputFile() {
+		return outputFile;
+	}
+
+	/**
+	 * Write anything that goes after the last message.  Does nothing unless overridden.
+	 */
+	protected void writeFooter() throws IOException {
+	}
+
+	/**
+	 * Move anything else the sink wrote into place, after the output is complete.  Does nothing unless overridden.
+	 */
+	protected void commit() throws IOException {
+	}
+
+	/**
+	 * Throw away anything else the sink wrote, when the output isn't finished.  Does nothing unless overridden.
+	 */
+	protected void abort() {
+	}
+
+	@Override
+	public void finish() throws IOException {
+		writeFooter();
+		if(outputFile == null) {
+			out.flush();
+		} else {
+			out.close();
+			commit();
+			Files.move(temporaryFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finished = true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(finished || outputFile == null) {
+			return;
+		}
+		try {
+			out.close();
+		} finally {
+			temporaryFile.delete();
+			abort();
+		}
+	}
+
+	/**
+	 * Put the decimal digits of a number in a buffer, which needs room for 20 bytes
+	 * @return the offset after the digits
+	 */
+	protected static int putDecimal(byte[] buffer, int offset, long value) {
+		if(value < 0) {
+			buffer[offset++] = '-';
+		}
+		int end = offset;
+		for(long rest = value; rest != 0 || end == offset; rest /= 10) {
+			end++;
+		}
+		// Work with negative digits, so Long.MIN_VALUE needs no special case
+		long rest = value < 0 ? value : -value;
+		for(int i = end - 1; i >= offset; i--) {
+			buffer[i] = (byte) ('0' - rest % 10);
+			rest /= 10;
+		}
+		return end;
+	}
+
+	protected static void write(OutputStream out, String text) throws IOException {
+		out.write(text.getBytes());
+	}
+}
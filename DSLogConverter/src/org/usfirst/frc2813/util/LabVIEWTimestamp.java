@@ -0,0 +1,117 @@
+package org.usfirst.frc2813.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.TimeZone;
+
+/**
+ * Decodes and formats the 128 bit LabVIEW timestamps in driver station logs.
+ *
+ * A timestamp is a signed 64 bit count of seconds since 1904-01-01 00:00 UTC, followed by an unsigned
+ * 64 bit fraction of a second, where 2^64 is one second.  Timestamps are decoded to nanoseconds since
+ * the Java epoch, and formatted as local time like "h:mm:ss.SSS", without allocating anything.
+ *
+ * Formatting keeps state, so each thread needs its own instance.
+ */
+public class LabVIEWTimestamp {
+	/**
+	 * Seconds from the LabVIEW epoch (1904) to the Java epoch (1970)
+	 */
+	public static final long EPOCH_OFFSET_SECONDS = 2082844800L;
+	/**
+	 * Longest result of {@link #format(long, byte[], int)}
+	 */
+	public static final int MAX_FORMATTED_LENGTH = "hh:mm:ss.SSS".length();
+	private static final long NANOS_PER_SECOND = 1000000000L;
+
+	private final TimeZone timeZone;
+	// The local time of day for the last second formatted, so it's only worked out once a second
+	private long cachedSecond = Long.MIN_VALUE;
+	private final byte[] cachedTime = new byte[MAX_FORMATTED_LENGTH];
+	private int cachedTimeLength;
+
+	/**
+	 * Format in the default time zone
+	 */
+	public LabVIEWTimestamp() {
+		this(TimeZone.getDefault());
+	}
+
+	public LabVIEWTimestamp(TimeZone timeZone) {
+		this.timeZone = timeZone;
+	}
+
+	/**
+	 * @param seconds whole seconds since 1904
+	 * @param fraction fraction of a second, unsigned, where 2^64 is one second
+	 * @return nanoseconds since 1970
+	 */
+	public static long toEpochNanos(long seconds, long fraction) {
+		return (seconds - EPOCH_OFFSET_SECONDS) * NANOS_PER_SECOND + fractionToNanos(fraction);
+	}
+
+	/**
+	 * @param fraction fraction of a second, unsigned, where 2^64 is one second
+	 * @return the fraction in whole nanoseconds, rounded down
+	 */
+	static long fractionToNanos(long fraction) {
+		// The top 64 bits of fraction * 10^9, done in 32 bit halves so nothing overflows
+		long high = (fraction >>> 32) * NANOS_PER_SECOND;
+		long low = (fraction & 0xFFFFFFFFL) * NANOS_PER_SECOND;
+		return (high + (low >>> 32)) >>> 32;
+	}
+
+	/**
+	 * Format a time as local "h:mm:ss.SSS"
+	 * @param epochNanos nanoseconds since 1970
+	 * @param buffer where to put the ASCII text, with room for {@link #MAX_FORMATTED_LENGTH} bytes
+	 * @param offset where in buffer to start
+	 * @return the offset after the text
+	 */
+	public int format(long epochNanos, byte[] buffer, int offset) {
+		long second = Math.floorDiv(epochNanos, NANOS_PER_SECOND);
+		if(second != cachedSecond) {
+			cacheTime(second);
+		}
+		System.arraycopy(cachedTime, 0, buffer, offset, cachedTimeLength);
+		offset += cachedTimeLength;
+		int millis = (int) (Math.floorMod(epochNanos, NANOS_PER_SECOND) / 1000000);
+		buffer[offset++] = '.';
+		buffer[offset++] = (byte) ('0' + millis / 100);
+		buffer[offset++] = (byte) ('0' + millis / 10 % 10);
+		buffer[offset++] = (byte) ('0' + millis % 10);
+		return offset;
+	}
+
+	/**
+	 * Format a time as local "h:mm:ss.SSS"
+	 * @param epochNanos nanoseconds since 1970
+	 */
+	public String format(long epochNanos) {
+		byte[] buffer = new byte[MAX_FORMATTED_LENGTH];
+		return new String(buffer, 0, format(epochNanos, buffer, 0), StandardCharsets.US_ASCII);
+	}
+
+	private void cacheTime(long second) {
+		long millis = second * 1000;
+		long local = Math.floorMod(second + timeZone.getOffset(millis) / 1000, 24 * 60 * 60);
+		int hour = (int) (local / 3600) % 12;
+		int minute = (int) (local / 60 % 60);
+		int sec = (int) (local % 60);
+		if(hour == 0) {
+			hour = 12;
+		}
+		int i = 0;
+		if(hour >= 10) {
+			cachedTime[i++] = '1';
+		}
+		cachedTime[i++] = (byte) ('0' + hour % 10);
+		cachedTime[i++] = ':';
+		cachedTime[i++] = (byte) ('0' + minute / 10);
+		cachedTime[i++] = (byte) ('0' + minute % 10);
+		cachedTime[i++] = ':';
+		cachedTime[i++] = (byte) ('0' + sec / 10);
+		cachedTime[i++] = (byte) ('0' + sec % 10);
+		cachedTimeLength = i;
+		cachedSecond = second;
+	}
+}
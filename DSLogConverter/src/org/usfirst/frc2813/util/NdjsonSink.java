@@ -0,0 +1,78 @@
+package org.usfirst.frc2813.util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Newline delimited JSON, one object per message: {"time_ns":...,"time":"h:mm:ss.SSS","message":"..."}
+ */
+public class NdjsonSink extends FileSink {
+	private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+	private final LabVIEWTimestamp timestampFormat = new LabVIEWTimestamp();
+	private static final byte[] TIME_NS = "{\"time_ns\":".getBytes();
+	private static final byte[] TIME = ",\"time\":\"".getBytes();
+	private static final byte[] MESSAGE = "\",\"message\":\"".getBytes();
+
+	// Everything up to the message text, the same for every message in a batch
+	private final byte[] prefix = new byte[TIME_NS.length + 20 + TIME.length + LabVIEWTimestamp.MAX_FORMATTED_LENGTH + MESSAGE.length];
+	private int prefixLength;
+
+	public NdjsonSink(File outputFile) throws IOException {
+		super(outputFile);
+	}
+
+	@Override
+	public void start(String filename, int version, long startNanos) throws IOException {
+	}
+
+	@Override
+	public void batch(long timeNanos) throws IOException {
+		System.arraycopy(TIME_NS, 0, prefix, 0, TIME_NS.length);
+		int i = putDecimal(prefix, TIME_NS.length, timeNanos);
+		System.arraycopy(TIME, 0, prefix, i, TIME.length);
+		i = timestampFormat.format(timeNanos, prefix, i + TIME.length);
+		System.arraycopy(MESSAGE, 0, prefix, i, MESSAGE.length);
+		prefixLength = i + MESSAGE.length;
+	}
+
+	@Override
+	public void message(long timeNanos, byte[] text, int length) throws IOException {
+		out.write(prefix, 0, prefixLength);
+		int run = 0;
+		for(int i = 0; i < length; i++) {
+			int b = text[i] & 0xFF;
+			if(b >= 0x20 && b != '"' && b != '\\') {
+				continue;
+			}
+			out.write(text, run, i - run);
+			run = i + 1;
+			out.write('\\');
+			switch(b) {
+			case '"':
+			case '\\':
+				out.write(b);
+				break;
+			case '\n':
+				out.write('n');
+				break;
+			case '\r':
+				out.write('r');
+				break;
+			case '\t':
+				out.write('t');
+				break;
+			default:
+				out.write('u');
+				out.write('0');
+				out.write('0');
+				out.write(HEX[b >> 4]);
+				out.write(HEX[b & 0xF]);
+			}
+		}
+		out.write(text, run, length - run);
+		out.write('"');
+		out.write('}');
+		out.write('\n');
+	}
+}
@@ -0,0 +1,67 @@
+package org.usfirst.frc2813.util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The files {@link DSLogConverter} can write, each next to the .dsevents with its own extension
+ */
+public enum OutputFormat {
+	LOG(".log") {
+		@Override
+		public DSEventsSink createSink(File outputFile) throws IOException {
+			return new TextLogSink(outputFile);
+		}
+
+		@Override
+		public boolean isUpToDate(File source) {
+			return super.isUpToDate(source) && DSLogIndex.getIndexFile(getOutputFile(source)).exists();
+		}
+	},
+	CSV(".csv") {
+		@Override
+		public DSEventsSink createSink(File outputFile) throws IOException {
+			return new CsvSink(outputFile);
+		}
+	},
+	NDJSON(".ndjson") {
+		@Override
+		public DSEventsSink createSink(File outputFile) throws IOException {
+			return new NdjsonSink(outputFile);
+		}
+	},
+	COLUMNAR(".dscol") {
+		@Override
+		public DSEventsSink createSink(File outputFile) throws IOException {
+			return new ColumnarSink(outputFile);
+		}
+	};
+
+	private final String extension;
+
+	private OutputFormat(String extension) {
+		this.extension = extension;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public abstract DSEventsSink createSink(File outputFile) throws IOException;
+
+	/**
+	 * @return where this format is written for a .dsevents file
+	 */
+	public File getOutputFile(File source) {
+		String path = source.getPath();
+		return new File((path.endsWith(".dsevents") ? path.substring(0, path.length() - ".dsevents".length()) : path) + extension);
+	}
+
+	/**
+	 * @return true if the output was written after the last change to the source
+	 */
+	public boolean isUpToDate(File source) {
+		File output = getOutputFile(source);
+		return output.exists() && output.lastModified() >= source.lastModified();
+	}
+}
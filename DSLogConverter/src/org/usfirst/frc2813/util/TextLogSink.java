@@ -0,0 +1,104 @@
+package org.usfirst.frc2813.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The human readable .log: a banner, then each message on a line with its batch's local time in front.
+ * A {@link DSLogIndex} is written alongside it.
+ */
+public class TextLogSink extends FileSink {
+	private static final String LINE = "------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------------\n";
+
+	private final File indexFile;
+	private final File temporaryIndexFile;
+	private final LabVIEWTimestamp timestampFormat = new LabVIEWTimestamp();
+	private final byte[] timestamp = new byte[LabVIEWTimestamp.MAX_FORMATTED_LENGTH + 1];
+	private int timestampLength;
+	private DSLogIndex index;
+	// Bytes written so far, for the index
+	private long count;
+
+	/**
+	 * Write a .log and its index
+	 */
+	public TextLogSink(File outputFile) throws IOException {
+		super(outputFile);
+		this.indexFile = DSLogIndex.getIndexFile(outputFile);
+		this.temporaryIndexFile = new File(indexFile.getPath() + ".tmp");
+	}
+
+	/**
+	 * Write to a stream, without an index
+	 */
+	public TextLogSink(OutputStream out) {
+		super(out);
+		this.indexFile = null;
+		this.temporaryIndexFile = null;
+	}
+
+	@Override
+	public void start(String filename, int version, long startNanos) throws IOException {
+		if(indexFile != null) {
+			index = new DSLogIndex(startNanos);
+		}
+		write(LINE);
+		write("Original: " + filename + "\n");
+		write("Version: " + version + "\n");
+		write("Timestamp: " + timestampFormat.format(startNanos) + "\n");
+		write(LINE);
+		if(version != 3) {
+			write("Unsupported Version.\n");
+		}
+	}
+
+	@Override
+	public void batch(long timeNanos) throws IOException {
+		if(index != null) {
+			index.add(count, timeNanos);
+		}
+		timestampLength = timestampFormat.format(timeNanos, timestamp, 0);
+		timestamp[timestampLength++] = ' ';
+	}
+
+	@Override
+	public void message(long timeNanos, byte[] text, int length) throws IOException {
+		out.write(timestamp, 0, timestampLength);
+		out.write(text, 0, length);
+		out.write('\n');
+		count += timestampLength + length + 1;
+	}
+
+	@Override
+	protected void writeFooter() throws IOException {
+		if(index == null) {
+			// A stream has no end of file
+			return;
+		}
+		index.finish(count);
+		index.write(temporaryIndexFile);
+		write(LINE);
+		write("End of file.\n");
+		write(LINE);
+	}
+
+	@Override
+	protected void commit() throws IOException {
+		// The index goes first, so a log that's up to date always has a matching index
+		Files.move(temporaryIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@Override
+	protected void abort() {
+		temporaryIndexFile.delete();
+	}
+
+	private void write(String text) throws IOException {
+		byte[] bytes = text.getBytes();
+		out.write(bytes);
+		count += bytes.length;
+	}
+}
@@ -0,0 +1,350 @@
+package org.usfirst.frc2813.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Merges driver station .dsevents files and robot console logs into one timeline, ordered by time.
+ *
+ * Robot log lines start with the robot Logger's "[mm:ss:SSS]", the wall clock minutes, seconds and
+ * milliseconds.  The hour is taken from the driver station clock, and the difference between the two
+ * clocks is estimated from messages that appear in both, since the driver station logs what the robot
+ * prints.  It can also be given with --offset.
+ *
+ * Each file is assumed to be in time order, as the driver station and the robot write them.  Files are streamed,
+ * and only the next line of each is held in memory, so any number of files of any size can be merged.
+ *
+ * Usage: TimelineMerge [--offset milliseconds] file...  Files ending in .dsevents are driver station events,
+ * anything else is a robot log.
+ */
+public class TimelineMerge {
+	private static final long NANOS_PER_MILLI = 1000000L;
+	private static final long NANOS_PER_HOUR = 60 * 60 * 1000 * NANOS_PER_MILLI;
+	/**
+	 * The most messages remembered, and matches used, when estimating the clock offset
+	 */
+	private static final int MAX_OFFSET_SAMPLES = 10000;
+	private static final int READABLE_TIME_LENGTH = "[mm:ss:SSS]".length();
+
+	/**
+	 * A file of lines in time order
+	 */
+	private static abstract class Source implements Closeable {
+		// Position in the list of files, which breaks ties
+		int order;
+
+		/**
+		 * Move to the next line
+		 * @return false at the end of the file
+		 */
+		abstract boolean next() throws IOException;
+
+		/**
+		 * @return when the current line was logged, in driver station time, in nanoseconds since 1970
+		 */
+		abstract long getTimeNanos();
+
+		/**
+		 * @return the current line, without its timestamp
+		 */
+		abstract String getText();
+
+		/**
+		 * @return what kind of file this is, for the output
+		 */
+		abstract String getLabel();
+	}
+
+	private static class DSEventsSource extends Source {
+		private final DSEventsReader reader;
+		private final DSEventsScanner scanner = new DSEventsScanner();
+		private final ByteArrayOutputStream message = new ByteArrayOutputStream();
+		private boolean inBatch;
+		private String text;
+
+		DSEventsSource(File file) throws IOException {
+			reader = new DSEventsReader(file);
+			int version = reader.readHeader();
+			if(version != 3) {
+				reader.close();
+				throw new IOException(file + " is .dsevents version " + version + ", only version 3 is supported");
+			}
+		}
+
+		long getStartNanos() {
+			return reader.getStartEpochNanos();
+		}
+
+		@Override
+		boolean next() throws IOException {
+			while(!inBatch || !scanner.next()) {
+				if(!reader.nextBatch()) {
+					return false;
+				}
+				scanner.reset(reader.getBatch(), reader.getBatchLength());
+				inBatch = true;
+			}
+			message.reset();
+			scanner.writeMessage(message);
+			text = message.toString();
+			return true;
+		}
+
+		@Override
+		long getTimeNanos() {
+			return reader.getBatchEpochNanos();
+		}
+
+		@Override
+		String getText() {
+			return text;
+		}
+
+		@Override
+		String getLabel() {
+			return "DS ";
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+
+	private static class RobotLogSource extends Source {
+		private final BufferedReader reader;
+		private final long offsetNanos;
+		// Robot clock time of the current line
+		private long robotNanos;
+		private String text;
+
+		/**
+		 * @param anchorNanos robot clock time near the start of the log, which supplies the hour
+		 * @param offsetNanos add this to robot clock times to get driver station times
+		 */
+		RobotLogSource(File file, long anchorNanos, long offsetNanos) throws IOException {
+			this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
+			this.robotNanos = anchorNanos;
+			this.offsetNanos = offsetNanos;
+		}
+
+		@Override
+		boolean next() throws IOException {
+			String line = reader.readLine();
+			if(line == null) {
+				return false;
+			}
+			long millisPastHour = parseReadableTime(line);
+			if(millisPastHour < 0) {
+				// A stack trace or the rest of a message with more than one line, logged with the line before
+				text = line;
+				return true;
+			}
+			text = line.substring(READABLE_TIME_LENGTH);
+			// Place the line at the time with those minutes closest to the line before
+			long delta = Math.floorMod(millisPastHour * NANOS_PER_MILLI - Math.floorMod(robotNanos, NANOS_PER_HOUR) + NANOS_PER_HOUR / 2, NANOS_PER_HOUR) - NANOS_PER_HOUR / 2;
+			robotNanos += delta;
+			return true;
+		}
+
+		long getRobotNanos() {
+			return robotNanos;
+		}
+
+		@Override
+		long getTimeNanos() {
+			return robotNanos + offsetNanos;
+		}
+
+		@Override
+		String getText() {
+			return text;
+		}
+
+		@Override
+		String getLabel() {
+			return "RIO";
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+
+	/**
+	 * @return the milliseconds past the hour of a line starting with the robot Logger's readableTime, or -1 if it doesn't
+	 */
+	static long parseReadableTime(String line) {
+		if(line.length() < READABLE_TIME_LENGTH || line.charAt(0) != '[' || line.charAt(3) != ':' || line.charAt(6) != ':' || line.charAt(10) != ']') {
+			return -1;
+		}
+		for(int i = 1; i < 10; i++) {
+			if(i == 3 || i == 6) {
+				continue;
+			}
+			char c = line.charAt(i);
+			if(c < '0' || c > '9') {
+				return -1;
+			}
+		}
+		long minutes = (line.charAt(1) - '0') * 10 + (line.charAt(2) - '0');
+		long seconds = (line.charAt(4) - '0') * 10 + (line.charAt(5) - '0');
+		return (minutes * 60 + seconds) * 1000 + (line.charAt(7) - '0') * 100 + (line.charAt(8) - '0') * 10 + (line.charAt(9) - '0');
+	}
+
+	/**
+	 * Without the readableTime prefix, if the message has one, so robot prints match in both logs
+	 */
+	private static String stripReadableTime(String text) {
+		return parseReadableTime(text) >= 0 ? text.substring(READABLE_TIME_LENGTH) : text;
+	}
+
+	private final List<File> dsFiles = new ArrayList<File>();
+	private final List<File> robotFiles = new ArrayList<File>();
+	private long anchorNanos;
+
+	public TimelineMerge(List<File> files) throws IOException {
+		for(File file : files) {
+			(file.getName().endsWith(".dsevents") ? dsFiles : robotFiles).add(file);
+		}
+		// Robot logs are assumed to overlap the driver station logs, which supply the hour
+		anchorNanos = Long.MAX_VALUE;
+		for(File file : dsFiles) {
+			try(DSEventsSource source = new DSEventsSource(file)) {
+				anchorNanos = Math.min(anchorNanos, source.getStartNanos());
+			}
+		}
+		if(anchorNanos == Long.MAX_VALUE) {
+			// Without driver station logs, the best guess is that the robot log was saved soon after it ended
+			for(File file : robotFiles) {
+				anchorNanos = Math.min(anchorNanos, file.lastModified() * NANOS_PER_MILLI);
+			}
+		}
+	}
+
+	/**
+	 * Estimate how far the driver station clock is ahead of the robot's, from messages logged by both.
+	 * Only messages that the robot printed once are used, and the median difference is taken.
+	 * @return the offset in nanoseconds, or 0 if no messages matched
+	 */
+	public long estimateOffsetNanos() throws IOException {
+		// Robot clock time of each message, or Long.MIN_VALUE if it was printed more than once
+		Map<String, Long> robotTimes = new HashMap<String, Long>();
+		for(File file : robotFiles) {
+			try(RobotLogSource source = new RobotLogSource(file, anchorNanos, 0)) {
+				while(robotTimes.size() < MAX_OFFSET_SAMPLES && source.next()) {
+					Long previous = robotTimes.put(source.getText(), source.getRobotNanos());
+					if(previous != null) {
+						robotTimes.put(source.getText(), Long.MIN_VALUE);
+					}
+				}
+			}
+		}
+		long[] differences = new long[MAX_OFFSET_SAMPLES];
+		int count = 0;
+		for(File file : dsFiles) {
+			try(DSEventsSource source = new DSEventsSource(file)) {
+				while(count < differences.length && source.next()) {
+					Long robotNanos = robotTimes.get(stripReadableTime(source.getText()));
+					if(robotNanos != null && robotNanos != Long.MIN_VALUE) {
+						differences[count++] = source.getTimeNanos() - robotNanos;
+					}
+				}
+			}
+		}
+		System.err.println("Clock offset estimated from " + count + " messages in both logs.");
+		if(count == 0) {
+			return 0;
+		}
+		Arrays.sort(differences, 0, count);
+		return differences[count / 2];
+	}
+
+	/**
+	 * Write every line of every file, in time order.  Lines logged at the same time keep the order of the files.
+	 * @param offsetNanos how far the driver station clock is ahead of the robot's
+	 */
+	public void merge(long offsetNanos, OutputStream out) throws IOException {
+		List<Source> sources = new ArrayList<Source>();
+		// Ties go to the file that was listed first
+		PriorityQueue<Source> heads = new PriorityQueue<Source>(Math.max(1, dsFiles.size() + robotFiles.size()), (a, b) -> {
+			int byTime = Long.compare(a.getTimeNanos(), b.getTimeNanos());
+			return byTime != 0 ? byTime : Integer.compare(a.order, b.order);
+		});
+		LabVIEWTimestamp timestampFormat = new LabVIEWTimestamp();
+		byte[] timestamp = new byte[LabVIEWTimestamp.MAX_FORMATTED_LENGTH];
+		try {
+			for(File file : dsFiles) {
+				sources.add(new DSEventsSource(file));
+			}
+			for(File file : robotFiles) {
+				sources.add(new RobotLogSource(file, anchorNanos, offsetNanos));
+			}
+			for(int i = 0; i < sources.size(); i++) {
+				Source source = sources.get(i);
+				source.order = i;
+				if(source.next()) {
+					heads.add(source);
+				}
+			}
+			while(!heads.isEmpty()) {
+				Source source = heads.poll();
+				out.write(timestamp, 0, timestampFormat.format(source.getTimeNanos(), timestamp, 0));
+				out.write(' ');
+				out.write(source.getLabel().getBytes());
+				out.write(' ');
+				out.write(source.getText().getBytes());
+				out.write('\n');
+				if(source.next()) {
+					heads.add(source);
+				}
+			}
+		} finally {
+			for(Source source : sources) {
+				source.close();
+			}
+		}
+		out.flush();
+	}
+
+	public static void main(String[] args) {
+		Long offsetMillis = null;
+		List<File> files = new ArrayList<File>();
+		for(int i = 0; i < args.length; i++) {
+			if(args[i].equals("--offset") && i + 1 < args.length) {
+				offsetMillis = Long.parseLong(args[++i]);
+			} else {
+				files.add(new File(args[i]));
+			}
+		}
+		if(files.isEmpty()) {
+			System.err.println("Usage: TimelineMerge [--offset milliseconds] <file.dsevents or robot log>...");
+			System.exit(1);
+		}
+		try {
+			TimelineMerge merge = new TimelineMerge(files);
+			long offsetNanos = offsetMillis != null ? offsetMillis * NANOS_PER_MILLI : merge.estimateOffsetNanos();
+			System.err.println(String.format("Driver station clock is %.3f seconds ahead of the robot.", offsetNanos / 1e9));
+			merge.merge(offsetNanos, new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16));
+		} catch(Throwable t) {
+			t.printStackTrace();
+			System.exit(1);
+		}
+	}
+}
@@ -17,8 +17,10 @@ import org.usfirst.frc2813.Robot2018.subsystems.solenoid.GearShiftConfiguration;
 import org.usfirst.frc2813.Robot2018.subsystems.solenoid.JawsConfiguration;
 import org.usfirst.frc2813.Robot2018.subsystems.solenoid.RatchetConfiguration;
 import org.usfirst.frc2813.Robot2018.subsystems.solenoid.Solenoid;
+import org.usfirst.frc2813.Robot2018.telemetry.TelemetryLog;
 import org.usfirst.frc2813.logging.Logger;
 import org.usfirst.frc2813.units.Direction;
+import org.usfirst.frc2813.units.uom.UOM;
 
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 
@@ -104,6 +106,7 @@ public class Robot extends IterativeRobot {
 	 */
 	//@Override
 	public void robotInit() {
+		Logger.reloadLevelsIfChanged();
 		Logger.info("In robotInit");
 
 		RobotMap.init();
@@ -115,6 +118,8 @@ public class Robot extends IterativeRobot {
 		ratchet = new Solenoid(new RatchetConfiguration(), RobotMap.ratchetSolenoid);
 		climbingBar = new Solenoid(new ClimbingBarConfiguration(), RobotMap.climbingBarSolenoid);
 		gearShifter = new Solenoid(new GearShiftConfiguration(), RobotMap.gearShiftSolenoid);
+		// The subsystems have created all their units of measure, so the conversions between them can be worked out once
+		UOM.seal();
 
 		// Ask the Gearheads what position the robot is in
 		SmartDashboard.putData("Which position is the robot in?", positionSelector);
@@ -144,6 +149,7 @@ public class Robot extends IterativeRobot {
 	@Override
 	public void disabledInit(){
 		AutoThread.stop();
+		TelemetryLog.getDefault().flush();
 		if (autonomousCommand != null) {
 			autonomousCommand.cancel();
 			autonomousCommand = null;
@@ -201,5 +207,7 @@ public class Robot extends IterativeRobot {
 	}
 	public void robotPeriodic() {
 		// Complain no more!
+		// Pick up edits to the log levels file without restarting
+		Logger.reloadLevelsIfChanged();
 	}
 }
@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.usfirst.frc2813.Robot2018.interlock.IInterlock;
 import org.usfirst.frc2813.Robot2018.interlock.IInterlockable;
+import org.usfirst.frc2813.logging.ClassLogger;
 import org.usfirst.frc2813.logging.LogType;
 import org.usfirst.frc2813.logging.Logger;
 import org.usfirst.frc2813.units.uom.TimeUOM;
@@ -21,7 +22,7 @@ import edu.wpi.first.wpilibj.command.TimedCommand;
 public abstract class GearheadsCommand extends Command implements IInterlockable {
 	private final RunningInstructions runningInstructions;
 	/**
-	 * If TRACING_LOG_LEVEL is within our current log level for the system, we will
+	 * If TRACING_LOG_LEVEL is within the log level of this command's channel, we will
 	 * trace out when all the core Command functions are executing. This is on by
 	 * default for all command instances, but can be disabled object-by-object with
 	 * setTracingEnabled.
@@ -37,6 +38,11 @@ public abstract class GearheadsCommand extends Command implements IInterlockable
 	 * being called on command, i.e. "in end', "in isfinished" etc...
 	 */
 	protected static final LogType ACTION_LOG_LEVEL = LogType.INFO;
+	/**
+	 * Each command class logs to the channel with its fully qualified name, so tracing can be turned up
+	 * for one command, or a package of them, without drowning in the rest.
+	 */
+	private final ClassLogger channel = Logger.forChannel(getClass().getName());
 	/**
 	 * We will populate this array with the key/value pairs of arguments for
 	 * formatting into a nice pretty name.
@@ -121,7 +127,7 @@ public abstract class GearheadsCommand extends Command implements IInterlockable
 	 * Tracing messages go through here
 	 */
 	private final void log(LogType logType, String function, Object... message) {
-		if (isTracingEnabled()) {
+		if (isTracingEnabled() && channel.isEnabled(logType)) {
 			StringBuilder sb = new StringBuilder();
 			sb.append(this);
 			if (function != null) {
@@ -135,7 +141,7 @@ public abstract class GearheadsCommand extends Command implements IInterlockable
 					if (o != null)
 						sb.append(o.toString());
 			}
-			Logger.print(logType, sb);
+			channel.print(logType, sb);
 		}
 	}
 	/*
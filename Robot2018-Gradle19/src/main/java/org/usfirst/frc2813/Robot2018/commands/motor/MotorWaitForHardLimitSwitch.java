@@ -3,6 +3,7 @@ package org.usfirst.frc2813.Robot2018.commands.motor;
 import org.usfirst.frc2813.Robot2018.commands.RunningInstructions;
 import org.usfirst.frc2813.Robot2018.commands.Lockout;
 import org.usfirst.frc2813.Robot2018.commands.subsystem.SubsystemCommand;
+import org.usfirst.frc2813.Robot2018.motor.IMotorConfiguration;
 import org.usfirst.frc2813.Robot2018.subsystems.motor.Motor;
 import org.usfirst.frc2813.units.Direction;
 
@@ -20,6 +21,13 @@ public final class MotorWaitForHardLimitSwitch extends SubsystemCommand<Motor> {
 		super(motor, duration, lockout);
 		this.direction = direction;
 		addArg("direction", direction);
+		// The sample reports a missing switch as open, so we'd wait forever
+		long switches = direction.isNegative()
+				? IMotorConfiguration.LocalReverseHardLimitSwitch|IMotorConfiguration.RemoteReverseHardLimitSwitch
+				: IMotorConfiguration.LocalForwardHardLimitSwitch|IMotorConfiguration.RemoteForwardHardLimitSwitch;
+		if(!motor.getConfiguration().hasAny(switches)) {
+			throw new IllegalArgumentException("The motor " + motor + " does not have a hard limit switch in the " + direction + " direction, so it would wait forever.");
+		}
 		setName(toString());
 	}
 	public MotorWaitForHardLimitSwitch(Motor motor, Direction direction, RunningInstructions duration) {
@@ -41,7 +49,7 @@ public final class MotorWaitForHardLimitSwitch extends SubsystemCommand<Motor> {
 
 	@Override
 	protected boolean ghscIsFinished() {
-		boolean finished = subsystem.getCurrentHardLimitSwitchStatus(direction);
+		boolean finished = subsystem.getCurrentSample().getHardLimitSwitchStatus(direction);
 		if(!finished) {
 			actionFormatted("isFinished", "waiting for %s to reach %s hard limit switch.",subsystem,direction);
 		} else {
@@ -3,6 +3,7 @@ package org.usfirst.frc2813.Robot2018.commands.motor;
 import org.usfirst.frc2813.Robot2018.commands.RunningInstructions;
 import org.usfirst.frc2813.Robot2018.commands.Lockout;
 import org.usfirst.frc2813.Robot2018.commands.subsystem.SubsystemCommand;
+import org.usfirst.frc2813.Robot2018.motor.MotorSample;
 import org.usfirst.frc2813.Robot2018.subsystems.motor.Motor;
 import org.usfirst.frc2813.units.values.Length;
 
@@ -49,10 +50,11 @@ public final class MotorWaitForTargetPosition extends SubsystemCommand<Motor> {
 	@Override
 	protected boolean ghscIsFinished() {
 		// NB: If there's no target position (absolute or relative), this will always return true.
-		boolean finished = subsystem.getCurrentPositionErrorWithin(allowableError);
+		MotorSample sample = subsystem.getCurrentSample();
+		boolean finished = sample.getPositionErrorWithin(allowableError);
 		// NB: If the motor is moving to a position (relative or absolute)
 		if(!finished) {
-			traceFormatted("isFinished", "waiting for %s to reach %s within +/- %s.",subsystem,subsystem.getTargetState().getTargetAbsolutePosition(), allowableError);
+			traceFormatted("isFinished", "waiting for %s to reach %s within +/- %s.  Position %s, error %s.",subsystem,subsystem.getTargetState().getTargetAbsolutePosition(), allowableError, sample.getPosition(), sample.getPositionError());
 		}
 		return finished;
 	}
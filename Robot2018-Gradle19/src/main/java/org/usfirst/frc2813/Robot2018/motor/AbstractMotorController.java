@@ -3,9 +3,12 @@ package org.usfirst.frc2813.Robot2018.motor;
 import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
 import org.usfirst.frc2813.Robot2018.motor.state.IMotorState;
 import org.usfirst.frc2813.Robot2018.motor.state.MotorStateFactory;
+import org.usfirst.frc2813.logging.ClassLogger;
+import org.usfirst.frc2813.logging.LogLimiter;
 import org.usfirst.frc2813.logging.LogType;
 import org.usfirst.frc2813.logging.Logger;
 import org.usfirst.frc2813.units.Direction;
+import org.usfirst.frc2813.units.math.LengthMath;
 import org.usfirst.frc2813.units.uom.LengthUOM;
 import org.usfirst.frc2813.units.values.Length;
 import org.usfirst.frc2813.units.values.Rate;
@@ -22,8 +25,13 @@ public abstract class AbstractMotorController implements IMotorController {
 	// Motor configuration data
 	protected final IMotorConfiguration configuration;
 	
-	protected final LogType autoCalibrationLogLevelForDebugOutput = LogType.INFO;
-	protected final LogType autoCalibrationLogLevelForInfoOutput = LogType.INFO;
+	// Sensor calibration is chatty.  Set the level of this channel to DEBUG to see all of it.
+	protected static final ClassLogger calibrationLog = Logger.forChannel("org.usfirst.frc2813.Robot2018.motor.calibration");
+	// The limit checks and PID profile changes run every periodic, and will keep complaining for as long as something is wrong
+	private final LogLimiter limitWarnings;
+	private final LogLimiter pidProfileWarnings;
+	// Which state changes the configuration allows
+	private final MotorTransitionTable transitions;
 
 	/* ----------------------------------------------------------------------------------------------
 	 * Constants
@@ -42,6 +50,8 @@ public abstract class AbstractMotorController implements IMotorController {
 
 	protected IMotorState currentState;
 	protected IMotorState previousState;
+	// This loop's sample, taken when first asked for.  Dropped when the loop, target state or sensor position changes.
+	private MotorSample currentSample;
 
 	/* ----------------------------------------------------------------------------------------------
 	 * Constructors
@@ -49,6 +59,9 @@ public abstract class AbstractMotorController implements IMotorController {
 	
 	protected AbstractMotorController(IMotorConfiguration configuration) {
 		this.configuration = configuration;
+		this.limitWarnings = new LogLimiter(configuration.getName() + " limit warnings", LogType.WARNING, 6, 5000);
+		this.pidProfileWarnings = new LogLimiter(configuration.getName() + " PID profile changes", LogType.INFO, 4, 5000);
+		this.transitions = MotorTransitionTable.forConfiguration(configuration);
 	}
 	
 	protected void initialize() {
@@ -150,37 +163,38 @@ public abstract class AbstractMotorController implements IMotorController {
 			return true;
 		}
 		Direction directionOfTravel; 
-		Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition to ", position, ".");
+		calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition to ", position, ".");
 		IMotorState stateBeforeResettingEncoders = getTargetState();
 		Length positionBeforeResettingEncoders = getCurrentPosition();
 		if(!changeState(MotorStateFactory.createDisabled(this))) {
-			Logger.print(autoCalibrationLogLevelForDebugOutput, this, " could not change state to disabled.  No resetting sensor position.");
+			calibrationLog.print(LogType.DEBUG, this, " could not change state to disabled.  No resetting sensor position.");
 			return false;
 		}
+		currentSample = null;
 		if(!resetEncoderSensorPositionImpl(position)) {
-			Logger.print(autoCalibrationLogLevelForDebugOutput, this, " failed to reset encoders.  Leaving motor disabled.  Expected ", position, " but got ", getCurrentPosition());
+			calibrationLog.print(LogType.DEBUG, this, " failed to reset encoders.  Leaving motor disabled.  Expected ", position, " but got ", getCurrentPosition());
 			return false;
 		}
 		switch(stateBeforeResettingEncoders.getOperation()) {
 		case CALIBRATING_SENSOR_IN_DIRECTION:
-			Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is transitioning to holding operation after completion of manual calibrating sensor operation.");
+			calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is transitioning to holding operation after completion of manual calibrating sensor operation.");
 			changeState(MotorStateFactory.createHoldingPosition(this));
 			break;
 		case DISABLED:
 			// Stay disabled, no further change required.
-			Logger.print(autoCalibrationLogLevelForDebugOutput, this, "already disabled.  No return.");
+			calibrationLog.print(LogType.DEBUG, this, "already disabled.  No return.");
 			break;
 		case HOLDING_CURRENT_POSITION:
-			Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is returning to holding operation after completion of auto-calibrating sensor operation.");
+			calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is returning to holding operation after completion of auto-calibrating sensor operation.");
 			changeState(MotorStateFactory.createHoldingPosition(this));
 			break;
 		case MOVING_IN_DIRECTION_AT_RATE:
 			directionOfTravel = stateBeforeResettingEncoders.getTargetDirection();
 			if(getCurrentHardLimitSwitchStatus(directionOfTravel)) {
-				Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is transitioning to holding operation after completion of auto-calibrating sensor operation.");
+				calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is transitioning to holding operation after completion of auto-calibrating sensor operation.");
 				changeState(MotorStateFactory.createHoldingPosition(this));
 			} else {
-				Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is transitioning back to moving away from the hardware limit after completion of auto-calibrating operation.");
+				calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is transitioning back to moving away from the hardware limit after completion of auto-calibrating operation.");
 				changeState(stateBeforeResettingEncoders);
 			}
 			
@@ -188,24 +202,27 @@ public abstract class AbstractMotorController implements IMotorController {
 		case MOVING_TO_ABSOLUTE_POSITION:
 			directionOfTravel = stateBeforeResettingEncoders.getTargetAbsolutePosition().getValue() > getCurrentPosition().getValue() ? Direction.FORWARD : Direction.REVERSE; 
 			if(getCurrentHardLimitSwitchStatus(directionOfTravel)) {
-				Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is transitioning to holding position, as the absolute position is beyond the hardware limit.");
+				calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is transitioning to holding position, as the absolute position is beyond the hardware limit.");
 				changeState(MotorStateFactory.createHoldingPosition(this));
 			} else {
-				Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is transitioning back to move to absolute position after completion of auto-calibrating sensor operation.");
+				calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is transitioning back to move to absolute position after completion of auto-calibrating sensor operation.");
 				changeState(MotorStateFactory.createMovingToAbsolutePosition(this, stateBeforeResettingEncoders.getTargetAbsolutePosition()));
 			}
 			break;
 		case MOVING_TO_RELATIVE_POSITION:
 			directionOfTravel = stateBeforeResettingEncoders.getTargetAbsolutePosition().getValue() > getCurrentPosition().getValue() ? Direction.FORWARD : Direction.REVERSE;
-			Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is transitioning to an adjusted relative position.");
+			calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is transitioning to an adjusted relative position.");
 			// NB: 
-			Length adjustedRelativePosition = stateBeforeResettingEncoders.getTargetRelativeDistance().add(positionBeforeResettingEncoders.subtract(position));
+			Length relativeDistance = stateBeforeResettingEncoders.getTargetRelativeDistance();
+			LengthUOM relativeUOM = relativeDistance.getUOM();
+			double positionChange = LengthMath.subtract(positionBeforeResettingEncoders.getValue(), positionBeforeResettingEncoders.getUOM(), position.getValue(), position.getUOM(), relativeUOM);
+			Length adjustedRelativePosition = relativeUOM.create(relativeDistance.getValue() + positionChange);
 			IMotorState relative = MotorStateFactory.createMovingToRelativePosition(this, stateBeforeResettingEncoders.getTargetDirection(), adjustedRelativePosition);
 			if(getCurrentHardLimitSwitchStatus(directionOfTravel)) {
-				Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is transitioning to holding position, as the relative position was beyond the hardware limit.");
+				calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is transitioning to holding position, as the relative position was beyond the hardware limit.");
 				changeState(MotorStateFactory.createHoldingPosition(this));
 			} else {
-				Logger.print(autoCalibrationLogLevelForDebugOutput, this, " resetEncoderSensorPosition(", position, ") is transitioning back to move to an adjusted relative position after completion of auto-calibrating sensor operation: ", relative);
+				calibrationLog.print(LogType.DEBUG, this, " resetEncoderSensorPosition(", position, ") is transitioning back to move to an adjusted relative position after completion of auto-calibrating sensor operation: ", relative);
 				changeState(relative);			
 			}
 			break;
@@ -224,69 +241,29 @@ public abstract class AbstractMotorController implements IMotorController {
 	// IMPORTANT: Do not call directly	
 	protected boolean isStateTransitionAllowed(IMotorState proposedState) {
 		// Validate the state transition before we do anything
-		if (currentState.equals(proposedState) && proposedState.getOperation() != MotorOperation.DISABLED) {
-			Logger.printFormat(LogType.WARNING, "bug in code: Transitioning from %s to %s.", currentState, proposedState);
-//			new Exception().printStackTrace();
-			return true;
+		long missingCapabilities = transitions.getMissingCapabilities(proposedState);
+		if(missingCapabilities != 0) {
+			throw new UnsupportedOperationException(describeMissingCapabilities(proposedState, missingCapabilities));
 		}
-		switch(proposedState.getOperation()) {
-		case DISABLED:
-			break;
-		case HOLDING_CURRENT_POSITION:
-			if(!configuration.hasAll(IMotorConfiguration.ControlPosition)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.ControlPosition, " capability.  Refusing request for ", proposedState, "."));
-			}
-			break;
-		case MOVING_IN_DIRECTION_AT_RATE:
-			if(!configuration.hasAll(IMotorConfiguration.ControlDirection)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.ControlDirection, " capability.  Refusing request for ", proposedState, "."));
-			}
-			if(proposedState.getTargetDirection().isPositive() && !configuration.hasAll(IMotorConfiguration.Forward)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.Forward, " capability.  Refusing request for ", proposedState, "."));
-			}
-			if(proposedState.getTargetDirection().isNegative() && !configuration.hasAll(IMotorConfiguration.Reverse)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.Reverse, " capability.  Refusing request for ", proposedState, "."));
-			}
-			if(!configuration.hasAll(IMotorConfiguration.ControlRate)) {
+		if(proposedState.getOperation() == MotorOperation.MOVING_IN_DIRECTION_AT_RATE) {
+			if(transitions.getIgnoresRate()) {
 				Logger.warning(this, " does not have the ", IMotorConfiguration.ControlRate, " capability.  Rate will be ignored.");
 			}
 			if(proposedState.getTargetRate().getValue() < 0) {
 				throw new IllegalArgumentException(Formatter.concat(this, " was asked to ", proposedState, ", but negative rate is not supported.  Use the direction parameter instead."));
 			}
-			break;
-		case MOVING_TO_ABSOLUTE_POSITION:
-			if(!configuration.hasAll(IMotorConfiguration.ControlPosition)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.ControlPosition, " capability.  Refusing request for ", proposedState, "."));
-			}
-			break;
-		case MOVING_TO_RELATIVE_POSITION:
-			if(!configuration.hasAll(IMotorConfiguration.ControlPosition)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.ControlPosition, " capability.  Refusing request for ", proposedState, "."));
-			}
-			if(proposedState.getTargetDirection().isPositive() && !configuration.hasAll(IMotorConfiguration.Forward)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.Forward, " capability.  Refusing request for ", proposedState, "."));
-			}
-			if(proposedState.getTargetDirection().isNegative() && !configuration.hasAll(IMotorConfiguration.Reverse)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.Reverse, " capability.  Refusing request for ", proposedState, "."));
-			}
-			break;
-		case CALIBRATING_SENSOR_IN_DIRECTION:
-			if(!configuration.hasAll(IMotorConfiguration.ReadPosition)) {
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have the ", IMotorConfiguration.ReadPosition, " capability.  Refusing request for ", proposedState, "."));
-			}
-			if(!configuration.hasAny(
-					proposedState.getTargetDirection().isPositive() 
-					? IMotorConfiguration.LocalForwardHardLimitSwitch|IMotorConfiguration.RemoteForwardHardLimitSwitch
-					: IMotorConfiguration.LocalReverseHardLimitSwitch|IMotorConfiguration.RemoteReverseHardLimitSwitch))
-			{
-				throw new UnsupportedOperationException(Formatter.concat(this, " does not have either a local or remote hard limit switch in the ", proposedState.getTargetDirection(), " direction.  Refusing request for ", proposedState, "."));
-			}
-		default:
-			break;
 		}
 		return true;
 	}
 
+	// Only called when refusing a state change, so the message is only built then
+	private String describeMissingCapabilities(IMotorState proposedState, long missingCapabilities) {
+		if(proposedState.getOperation() == MotorOperation.CALIBRATING_SENSOR_IN_DIRECTION && missingCapabilities != IMotorConfiguration.ReadPosition) {
+			return Formatter.concat(this, " does not have either a local or remote hard limit switch in the ", proposedState.getTargetDirection(), " direction.  Refusing request for ", proposedState, ".");
+		}
+		return Formatter.concat(this, " does not have the ", missingCapabilities, " capability.  Refusing request for ", proposedState, ".");
+	}
+
 	/**
 	 * All changes to state are done here, and recorded here.
 	 * Optionally reported to the log here.
@@ -294,6 +271,12 @@ public abstract class AbstractMotorController implements IMotorController {
 	 */
 	protected final boolean changeState(IMotorState motorState) {
 		Logger.printFormat(LogType.DEBUG, "%s Changing state from %s to %s.", this, currentState, motorState);
+
+		// NB: MotorStateFactory reuses states, so asking again for what we're already doing is the same object, and there's
+		// nothing to do.  Disabling or holding again still runs, so holding again holds at the new current position.
+		if (currentState == motorState && !motorState.getOperation().isIdle()) {
+			return true;
+		}
 		
 		// Check that the state transition is legal before we do anything.
 		if(!isStateTransitionAllowed(motorState)) {
@@ -310,7 +293,11 @@ public abstract class AbstractMotorController implements IMotorController {
 		// Transition successful, save the state.
 		this.previousState = this.currentState;
 		this.currentState = motorState;
-		Logger.info(this, " transition complete: ", getDiagnostics(), " (was ", previousState, ")");		
+		this.currentSample = null;
+		// Diagnostics read the sensors, so only build them if they'll be printed
+		if(Logger.isEnabled(LogType.INFO)) {
+			Logger.info(this, " transition complete: ", getDiagnostics(), " (was ", previousState, ")");
+		}
 		return true;
 	}
 	
@@ -347,6 +334,30 @@ public abstract class AbstractMotorController implements IMotorController {
 		
 	}
 
+	@Override
+	public MotorSample getCurrentSample() {
+		if(currentSample == null) {
+			// Controllers without a sensor throw if asked for what they can't read
+			boolean readsPosition = configuration.hasAll(IMotorConfiguration.ReadPosition);
+			boolean readsRate = configuration.hasAll(IMotorConfiguration.ReadRate);
+			currentSample = new MotorSample(
+					System.nanoTime(),
+					readsPosition ? getCurrentPosition() : null,
+					readsRate ? getCurrentRate() : null,
+					getTargetState().getHasTargetPosition(),
+					readsPosition ? getCurrentPositionError() : null,
+					readsRate ? getCurrentRateError() : null,
+					getHardLimitSwitchStatusIfPresent(Direction.FORWARD),
+					getHardLimitSwitchStatusIfPresent(Direction.REVERSE));
+		}
+		return currentSample;
+	}
+
+	// Controllers without limit switches throw if asked about them
+	private boolean getHardLimitSwitchStatusIfPresent(Direction direction) {
+		return configuration.hasAny(MotorTransitionTable.getHardLimitSwitches(direction.isNegative())) && getCurrentHardLimitSwitchStatus(direction);
+	}
+
 	@Override
 	public Length getCurrentPositionError() {
 		return getTargetState().getCurrentPositionError();
@@ -484,10 +495,10 @@ public abstract class AbstractMotorController implements IMotorController {
 					|| /* moving to absolute position in reverse */ (getTargetState().getOperation() == MotorOperation.MOVING_TO_ABSOLUTE_POSITION && getTargetState().getTargetAbsolutePosition().getCanonicalValue() < getTargetState().getStartingAbsolutePosition().getCanonicalValue())
 				)
 				{
-					Logger.print(autoCalibrationLogLevelForInfoOutput, this, " forward limit switch encountered and position is not the limit, but we're moving away from the limit, so we are leaving it alone.");
+					calibrationLog.print(LogType.INFO, this, " forward limit switch encountered and position is not the limit, but we're moving away from the limit, so we are leaving it alone.");
 					return false;
 				}
-				Logger.print(autoCalibrationLogLevelForInfoOutput, this, " forward limit switch encountered and position is not the limit.  Changing sensor value from ", getCurrentPosition(), " to ", getForwardLimit(), "."); 
+				calibrationLog.print(LogType.INFO, this, " forward limit switch encountered and position is not the limit.  Changing sensor value from ", getCurrentPosition(), " to ", getForwardLimit(), "."); 
 				resetEncoders = resetEncoderSensorPosition(getForwardLimit());
 			}
 		}
@@ -503,10 +514,10 @@ public abstract class AbstractMotorController implements IMotorController {
 					|| /* moving to absolute position in reverse */ (getTargetState().getOperation() == MotorOperation.MOVING_TO_ABSOLUTE_POSITION && getTargetState().getTargetAbsolutePosition().getCanonicalValue() > getTargetState().getStartingAbsolutePosition().getCanonicalValue())
 				)
 				{
-					Logger.print(autoCalibrationLogLevelForInfoOutput, this, " reverse limit switch encountered and position is not the limit, but we're moving away from the limit, so we are leaving it alone.");
+					calibrationLog.print(LogType.INFO, this, " reverse limit switch encountered and position is not the limit, but we're moving away from the limit, so we are leaving it alone.");
 					return false;
 				}
-				Logger.print(autoCalibrationLogLevelForInfoOutput, this, " reverse limit switch encountered and position is not the limit.  Changing sensor value from ", getCurrentPosition(), " to ", getReverseLimit(), "."); 
+				calibrationLog.print(LogType.INFO, this, " reverse limit switch encountered and position is not the limit.  Changing sensor value from ", getCurrentPosition(), " to ", getReverseLimit(), "."); 
 				resetEncoders = resetEncoderSensorPosition(getReverseLimit());
 			}
 		}
@@ -555,11 +566,13 @@ public abstract class AbstractMotorController implements IMotorController {
 	protected void updatePIDProfileSlotForCurrentState() {
 		PIDProfileSlot correctPIDProfileSlot = getAppropriatePIDProfileSlotForCurrentState();
 		if(!getPIDProfileSlot().equals(correctPIDProfileSlot)) {
-			if(getTargetState().isMovingToPosition()) {
-				Logger.info(this, " updating PID profile to ", correctPIDProfileSlot, ".  We are ", (correctPIDProfileSlot.equals(PIDProfileSlot.HoldingPosition) ? "close to" : "far from"), " the target.  PositionError=", getTargetState().getCurrentPositionError());	
-			} else {
-				Logger.warning(this, " updating PID profile to ", correctPIDProfileSlot, ", but we are not in a state that requires changing PID profiles.");
-				(new Throwable()).printStackTrace();
+			if(pidProfileWarnings.tryAcquire()) {
+				if(getTargetState().isMovingToPosition()) {
+					Logger.info(this, " updating PID profile to ", correctPIDProfileSlot, ".  We are ", (correctPIDProfileSlot.equals(PIDProfileSlot.HoldingPosition) ? "close to" : "far from"), " the target.  PositionError=", getTargetState().getCurrentPositionError());	
+				} else {
+					Logger.warning(this, " updating PID profile to ", correctPIDProfileSlot, ", but we are not in a state that requires changing PID profiles.");
+					(new Throwable()).printStackTrace();
+				}
 			}
 			setPIDProfileSlot(correctPIDProfileSlot);
 		}
@@ -589,7 +602,7 @@ public abstract class AbstractMotorController implements IMotorController {
 	 * Check the indicated hard limit switch and report if it needs calibration
 	 */
 	private void checkForHardLimitError(Direction targetDirection) {
-		if(isHardLimitNeedingCalibration(targetDirection)) {
+		if(isHardLimitNeedingCalibration(targetDirection) && limitWarnings.tryAcquire()) {
 			Logger.warning(this, " ", targetDirection, " HARD LIMIT has drifted.  We're past the limit, but the switch is not active.  Limit: ", bothUnits(getHardLimit(targetDirection)), " Position: ", bothUnits(getCurrentPosition()));
 		}
 		/* NB: We check for sensor is active, but sensor position != 0 elsewhere.  It can actually have a range.  We keep setting to zero until the motor
@@ -601,7 +614,7 @@ public abstract class AbstractMotorController implements IMotorController {
 	 * Check the indicated hard limit switch and report if it needs calibration
 	 */
 	private void checkForSoftLimitError(Direction targetDirection) {
-		if(isSoftLimitExceeded(targetDirection)) {
+		if(isSoftLimitExceeded(targetDirection) && limitWarnings.tryAcquire()) {
 			Logger.warning(this, " ", targetDirection, " soft limit has been exceeded.  Limit: ", bothUnits(getSoftLimit(targetDirection)), " Position: ", bothUnits(getCurrentPosition()));
 		}
 	}
@@ -609,7 +622,7 @@ public abstract class AbstractMotorController implements IMotorController {
 	 * Check the indicated specified limit has been exceeded
 	 */
 	private void checkForPhysicalLimitError(Direction targetDirection) {
-		if(isPhysicalLimitExceeded(targetDirection)) {
+		if(isPhysicalLimitExceeded(targetDirection) && limitWarnings.tryAcquire()) {
 			Logger.warning(this, " ", targetDirection, " configured limit has been exceeded.  Update the limits.  Limit: ", bothUnits(getPhysicalLimit(targetDirection)), " Position: ", bothUnits(getCurrentPosition()));
 		}
 	}
@@ -625,6 +638,21 @@ public abstract class AbstractMotorController implements IMotorController {
 		checkForPhysicalLimitError(Direction.REVERSE);
 	}
 	
+	/**
+	 * Drops the last loop's sample.  Controllers whose sensors are slow to read also drop their cached readings.
+	 */
+	@Override
+	public void startLoop() {
+		currentSample = null;
+	}
+
+	/**
+	 * Drop the sample when the sensors change other than at the start of a loop
+	 */
+	protected final void discardSample() {
+		currentSample = null;
+	}
+
 	@Override
 	public void periodic() {
 		autoResetSensorPositionIfNecessary();
@@ -89,6 +89,18 @@ public interface IMotor {
 	 * @return true if a soft limit switch exists AND is active, as defined by the configuration.
 	 */
 	public boolean getCurrentSoftLimitSwitchStatus(Direction switchDirection);
+	/**
+	 * Read the position, rate, errors and hard limit switches together.  The motor controller reads them once a loop,
+	 * so the readings are consistent with each other and cost nothing after the first call of the loop.
+	 * Readings the motor can't take are null, see {@link MotorSample}.
+	 * @see IMotor#getCurrentPosition()
+	 * @see IMotor#getCurrentRate()
+	 * @see IMotor#getCurrentPositionError()
+	 * @see IMotor#getCurrentRateError()
+	 * @see IMotor#getCurrentHardLimitSwitchStatus(Direction)
+	 * @return The readings for this loop
+	 */
+	public MotorSample getCurrentSample();
 
 	/**
 	 * Dump the output of getDiagnostics() to the logger
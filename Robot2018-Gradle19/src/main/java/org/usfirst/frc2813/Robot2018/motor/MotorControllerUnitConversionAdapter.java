@@ -1,6 +1,7 @@
 package org.usfirst.frc2813.Robot2018.motor;
 
 import org.usfirst.frc2813.Robot2018.motor.state.IMotorState;
+import org.usfirst.frc2813.logging.ClassLogger;
 import org.usfirst.frc2813.logging.LogType;
 import org.usfirst.frc2813.logging.Logger;
 import org.usfirst.frc2813.units.Direction;
@@ -16,9 +17,12 @@ import org.usfirst.frc2813.util.Formatter;
  */
 public class MotorControllerUnitConversionAdapter implements IMotorController {
 
-	private final static LogType logLevel = LogType.DEBUG;
+	private final static ClassLogger logger = Logger.forChannel(MotorControllerUnitConversionAdapter.class.getName());
 	private final IMotorConfiguration configuration;
 	private final IMotorController   controller;
+	// The controller's last sample, and the same sample in display units
+	private MotorSample              lastSensorSample;
+	private MotorSample              lastDisplaySample;
 	
 	public MotorControllerUnitConversionAdapter(
 			IMotorConfiguration configuration, 
@@ -51,12 +55,12 @@ public class MotorControllerUnitConversionAdapter implements IMotorController {
 	}
 
 	public void error(String function, Object...objects) {
-		Logger.printFormat(logLevel, "%s.%s %s", getClass().getSimpleName(), function, objects);
+		logger.printFormat(LogType.DEBUG, "%s.%s %s", getClass().getSimpleName(), function, objects);
 		(new Throwable()).printStackTrace();
 	}
 
 	public void log(String function, Object...objects) {
-		Logger.printFormat(logLevel, "%s.%s %s", getClass().getSimpleName(), function, objects);
+		logger.printFormat(LogType.DEBUG, "%s.%s %s", getClass().getSimpleName(), function, objects);
 	}
 
 	@Override
@@ -104,6 +108,21 @@ public class MotorControllerUnitConversionAdapter implements IMotorController {
 		return newPosition;
 	}
 
+	@Override
+	public MotorSample getCurrentSample() {
+		// [ABSOLUTE] Must adjust units, scale and phase, but only once for each sample the controller takes
+		MotorSample sample = getMotorController().getCurrentSample();
+		if(sample != lastSensorSample) {
+			lastDisplaySample = sample.convertTo(configuration.getNativeDisplayLengthUOM(), configuration.getNativeDisplayRateUOM(), getPhaseMultiplier());
+			lastSensorSample = sample;
+			// A new sample every loop, so only build the message if it'll be printed
+			if(logger.isEnabled(LogType.DEBUG)) {
+				log("getCurrentSample", Formatter.safeFormat("converted %s to %s", sample, lastDisplaySample));
+			}
+		}
+		return lastDisplaySample;
+	}
+
 	@Override
 	public boolean disable() {
 		return getMotorController().disable();
@@ -331,6 +350,11 @@ public class MotorControllerUnitConversionAdapter implements IMotorController {
 		getMotorController().periodic();
 	}
 
+	@Override
+	public void startLoop() {
+		getMotorController().startLoop();
+	}
+
 	@Override
 	public boolean isDisconnected() {
 		return getMotorController().isDisconnected();
@@ -1,37 +1,109 @@
 package org.usfirst.frc2813.Robot2018.motor.state;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import org.usfirst.frc2813.Robot2018.motor.IMotor;
+import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
 import org.usfirst.frc2813.units.Direction;
 import org.usfirst.frc2813.units.values.Length;
 import org.usfirst.frc2813.units.values.Rate;
 
+/**
+ * States are immutable, so the ones that don't record the starting position are reused.  Each motor has one
+ * disabled and one holding position state, and remembers its last few moves at a rate and calibrations, so
+ * asking for the same state again returns the same object.  Moves to a position record where they started, so
+ * they're always new.
+ */
 public final class MotorStateFactory {
-	
+
+	// Enough for both directions at a couple of rates, or calibrating both ways
+	private static final int RECENT_STATES = 4;
+
+	// Motors are created when the robot starts and last until it stops, so they're never removed
+	private static final Map<IMotor,MotorStates> states = new IdentityHashMap<IMotor,MotorStates>();
+
 	/* ----------------------------------------------------------------------------------------------
 	 * Factories
 	 * ---------------------------------------------------------------------------------------------- */
-	
+
 	public static MotorState createDisabled(IMotor motor) {
-		return new DisabledMotorState(motor);
+		return getStates(motor).disabled;
 	}
 
 	public static MotorState createHoldingPosition(IMotor motor) {
-		return new HoldingPositionMotorState(motor);
+		return getStates(motor).holdingPosition;
 	}
-	
+
 	public static MotorState createMovingToAbsolutePosition(IMotor motor, Length targetAbsolutePosition) {
 		return new MovingToAbsolutePositionMotorState(motor, targetAbsolutePosition);
 	}
 
-	public static MotorState createMovingInDirectionAtRate(IMotor motor, Direction targetDirection, Rate targetRate) {
-		return new MovingInDirectionAtRateMotorState(motor, targetDirection, targetRate);
+	public static synchronized MotorState createMovingInDirectionAtRate(IMotor motor, Direction targetDirection, Rate targetRate) {
+		MotorStates motorStates = getStates(motor);
+		MotorState state = motorStates.findRecent(MotorOperation.MOVING_IN_DIRECTION_AT_RATE, targetDirection, targetRate);
+		if(state == null) {
+			state = motorStates.addRecent(new MovingInDirectionAtRateMotorState(motor, targetDirection, targetRate));
+		}
+		return state;
 	}
-	
+
 	public static IMotorState createMovingToRelativePosition(IMotor motor, Direction targetDirection, Length targetRelativeDistance) {
 		return new MovingToRelativePosition(motor, targetDirection, targetRelativeDistance);
 	}
 
-	public static IMotorState createCalibrateSensorInDirection(IMotor motor, Direction targetDirection) {
-		return new CalibratingSensorInDirection(motor, targetDirection);
+	public static synchronized IMotorState createCalibrateSensorInDirection(IMotor motor, Direction targetDirection) {
+		MotorStates motorStates = getStates(motor);
+		MotorState state = motorStates.findRecent(MotorOperation.CALIBRATING_SENSOR_IN_DIRECTION, targetDirection, null);
+		if(state == null) {
+			state = motorStates.addRecent(new CalibratingSensorInDirection(motor, targetDirection));
+		}
+		return state;
+	}
+
+	/* ----------------------------------------------------------------------------------------------
+	 * Reused States
+	 * ---------------------------------------------------------------------------------------------- */
+
+	private static synchronized MotorStates getStates(IMotor motor) {
+		MotorStates motorStates = states.get(motor);
+		if(motorStates == null) {
+			motorStates = new MotorStates(motor);
+			states.put(motor, motorStates);
+		}
+		return motorStates;
+	}
+
+	private static final class MotorStates {
+		private final MotorState disabled;
+		private final MotorState holdingPosition;
+		// The most recently created states with a direction, replacing the oldest
+		private final MotorState[] recent = new MotorState[RECENT_STATES];
+		private int next = 0;
+
+		MotorStates(IMotor motor) {
+			this.disabled = new DisabledMotorState(motor);
+			this.holdingPosition = new HoldingPositionMotorState(motor);
+		}
+
+		// The rate has to be in the same units, so the motor controllers see the units they were given
+		MotorState findRecent(MotorOperation operation, Direction targetDirection, Rate targetRate) {
+			for(MotorState state : recent) {
+				if(state != null
+						&& state.getOperation() == operation
+						&& state.getTargetDirection() == targetDirection
+						&& (targetRate == null || (state.getTargetRate().getUOM() == targetRate.getUOM() && state.getTargetRate().getValue() == targetRate.getValue())))
+				{
+					return state;
+				}
+			}
+			return null;
+		}
+
+		MotorState addRecent(MotorState state) {
+			recent[next] = state;
+			next = (next + 1) % recent.length;
+			return state;
+		}
 	}
 }
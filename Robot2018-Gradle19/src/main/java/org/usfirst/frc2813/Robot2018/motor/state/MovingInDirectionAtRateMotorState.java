@@ -14,7 +14,7 @@ public class MovingInDirectionAtRateMotorState extends MotorState {
 				targetRate,
 				null,
 				null,
-				motor.getCurrentPosition()
+				null // Not used, and MotorStateFactory reuses these
 				);
 	}
 }
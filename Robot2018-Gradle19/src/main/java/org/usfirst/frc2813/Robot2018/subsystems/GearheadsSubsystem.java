@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.usfirst.frc2813.Robot2018.interlock.IInterlock;
 import org.usfirst.frc2813.Robot2018.interlock.IInterlockable;
+import org.usfirst.frc2813.logging.ClassLogger;
 import org.usfirst.frc2813.logging.Logger;
 
 import edu.wpi.first.wpilibj.DriverStation;
@@ -15,9 +16,7 @@ import edu.wpi.first.wpilibj.command.Subsystem;
  * This class contains code common to all Subsystems
  */
 public abstract class GearheadsSubsystem extends Subsystem implements IInterlockable {
-	static {
-		Logger.addMe();
-	}
+	private static final ClassLogger log = Logger.forClass(GearheadsSubsystem.class);
 	private boolean _isEmulated = false;
 	private boolean lockout = false;
 	public boolean encoderFunctional = true;
@@ -83,7 +82,7 @@ public abstract class GearheadsSubsystem extends Subsystem implements IInterlock
 	@Override
 	public final Command getDefaultCommand() {
 		if(!isSafeToOperate()) {
-			Logger.warning(this + " could not getDefaultCommand because we are interlocked.");
+			log.warning(this + " could not getDefaultCommand because we are interlocked.");
 			return null;
 		}
 		return super.getDefaultCommand();
@@ -96,7 +95,7 @@ public abstract class GearheadsSubsystem extends Subsystem implements IInterlock
 		if(isSafeToOperate()) {
 			initDefaultCommand();
 		} else {
-			Logger.warning(this + " could not resetDefaultCommand because we are interlocked.");
+			log.warning(this + " could not resetDefaultCommand because we are interlocked.");
 		}
 	}
 	
@@ -5,7 +5,7 @@ import org.usfirst.frc2813.Robot2018.motor.IMotor;
 import org.usfirst.frc2813.Robot2018.motor.IMotorConfiguration;
 import org.usfirst.frc2813.Robot2018.motor.IMotorController;
 import org.usfirst.frc2813.Robot2018.motor.MotorControllerUnitConversionAdapter;
-import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
+import org.usfirst.frc2813.Robot2018.motor.MotorSample;
 import org.usfirst.frc2813.Robot2018.motor.pwm.PWM;
 import org.usfirst.frc2813.Robot2018.motor.pwm.PWMWithEncoder;
 import org.usfirst.frc2813.Robot2018.motor.simulated.Simulated;
@@ -14,6 +14,8 @@ import org.usfirst.frc2813.Robot2018.motor.state.MotorStateFactory;
 import org.usfirst.frc2813.Robot2018.motor.talon.TalonSRX;
 import org.usfirst.frc2813.Robot2018.motor.victor.VictorSPX;
 import org.usfirst.frc2813.Robot2018.subsystems.GearheadsSubsystem;
+import org.usfirst.frc2813.Robot2018.telemetry.TelemetryFormat;
+import org.usfirst.frc2813.Robot2018.telemetry.TelemetryLog;
 import org.usfirst.frc2813.logging.LogType;
 import org.usfirst.frc2813.logging.Logger;
 import org.usfirst.frc2813.units.Direction;
@@ -269,11 +271,14 @@ public final class Motor extends GearheadsSubsystem implements IMotor {
 
 	@Override
 	public void periodic() {
+		// Subsystems run before commands, so this is the start of the loop.  Telemetry reads the sensors even when disabled.
+		getMotorController().startLoop();
 		super.periodic();
 		if(isRobotEnabled()) {
 			getMotorController().periodic();
 		}
 		dumpSubsystemStatusAtIntervals();
+		recordTelemetry();
 	}
 
 	/* ----------------------------------------------------------------------------------------------
@@ -343,11 +348,6 @@ public final class Motor extends GearheadsSubsystem implements IMotor {
 	 * @return true if it's ok to transition to the next state/command, false to block it.  
 	 */	
 	protected boolean isStateTransitionAllowed(IMotorState proposedState) {
-		if (proposedState.equals(getTargetState()) && proposedState.getOperation() != MotorOperation.DISABLED) {
-			Logger.printFormat(LogType.WARNING, "bug in code: Transitioning from %s state to %s state.", getTargetState(), proposedState);
-			new Exception().printStackTrace();
-			return false;
-		}
 		return true;
 	}
 	
@@ -410,6 +410,11 @@ public final class Motor extends GearheadsSubsystem implements IMotor {
 			Logger.warning("Motor configuration says it's disconnected. Refusing action.");
 			return false;	
 		}
+		// NB: MotorStateFactory reuses states, so asking again for what we're already doing is the same object, and there's
+		// nothing to do.  Disabling or holding again still runs, so holding again holds at the new current position.
+		if (proposedState == getTargetState() && !proposedState.getOperation().isIdle()) {
+			return true;
+		}
 		
 		// Check that the state transition is legal before we do anything.
 		if(!isStateTransitionAllowed(proposedState)) {
@@ -439,6 +444,46 @@ public final class Motor extends GearheadsSubsystem implements IMotor {
 	
 	private static final long DISPLAY_INTERVAL = 2500;
 	private long lastPositionReport = System.currentTimeMillis() - DISPLAY_INTERVAL;
+	private final TelemetryLog telemetry = TelemetryLog.getDefault();
+	private int telemetrySource = -1;
+
+	/**
+	 * Write a sample to the binary telemetry log every periodic.  Use this, not the console, for post-match debugging.
+	 */
+	private void recordTelemetry() {
+		if(!telemetry.isEnabled()) {
+			return;
+		}
+		if(telemetrySource < 0) {
+			telemetrySource = telemetry.registerSource(
+					configuration.getName(), 
+					configuration.getNativeDisplayLengthUOM().getUnitNameAbbreviation(),
+					configuration.getNativeDisplayRateUOM().getUnitNameAbbreviation());
+		}
+		int flags = isEmulated() ? TelemetryFormat.FLAG_EMULATED : 0;
+		if(configuration.hasAll(IMotorConfiguration.Disconnected)) {
+			telemetry.recordMotor(telemetrySource, getTargetState().getOperation(), Double.NaN, Double.NaN, Double.NaN, flags | TelemetryFormat.FLAG_DISCONNECTED);
+			return;
+		}
+		MotorSample sample = getCurrentSample();
+		if(configuration.hasAll(IMotorConfiguration.LocalForwardHardLimitSwitch) && sample.getHardLimitSwitchStatus(Direction.FORWARD)) {
+			flags |= TelemetryFormat.FLAG_FORWARD_HARD_LIMIT;
+		}
+		if(configuration.hasAll(IMotorConfiguration.LocalReverseHardLimitSwitch) && sample.getHardLimitSwitchStatus(Direction.REVERSE)) {
+			flags |= TelemetryFormat.FLAG_REVERSE_HARD_LIMIT;
+		}
+		// The sample leaves out what the motor can't read, i.e. a PWM motor has no position
+		Length position = sample.getPosition();
+		Rate rate = sample.getRate();
+		Length positionError = sample.getPositionError();
+		telemetry.recordMotor(telemetrySource,
+				getTargetState().getOperation(),
+				position != null ? position.getValueIn(configuration.getNativeDisplayLengthUOM()) : Double.NaN,
+				rate != null ? rate.getValueIn(configuration.getNativeDisplayRateUOM()) : Double.NaN,
+				positionError != null ? positionError.getValueIn(configuration.getNativeDisplayLengthUOM()) : Double.NaN,
+				flags);
+	}
+
 	private void dumpSubsystemStatusAtIntervals() {
 		if(System.currentTimeMillis() - lastPositionReport >= DISPLAY_INTERVAL) {
 			lastPositionReport = System.currentTimeMillis();
@@ -479,6 +524,10 @@ public final class Motor extends GearheadsSubsystem implements IMotor {
 		return getMotorController().getCurrentSoftLimitSwitchStatus(switchDirection);
 	}
 	@Override
+	public MotorSample getCurrentSample() {
+		return getMotorController().getCurrentSample();
+	}
+	@Override
 	public Length getPhysicalLimit(Direction direction) {
 		return getMotorController().getPhysicalLimit(direction);
 	}
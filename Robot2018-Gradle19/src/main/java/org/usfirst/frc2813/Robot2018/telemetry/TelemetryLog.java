@@ -0,0 +1,231 @@
+package org.usfirst.frc2813.Robot2018.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
+import org.usfirst.frc2813.logging.Logger;
+
+/**
+ * Compact binary log of motor samples for post-match debugging.
+ *
+ * Records are written straight into a memory mapped, pre-sized segment file, so a sample costs
+ * a handful of buffer writes and no formatting or system calls.  When a segment fills up the next
+ * one is started.  Segments are opened on the first record, so nothing is created unless something is logged.
+ * See {@link TelemetryFormat} for the layout, and use {@link TelemetryReader} to turn segments into CSV.
+ */
+public final class TelemetryLog {
+	/**
+	 * Where the robot keeps its segments
+	 */
+	public static final String DEFAULT_DIRECTORY = "/home/lvuser/telemetry";
+	/**
+	 * About 50,000 motor samples, a match for every motor on the robot
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+	/**
+	 * The oldest segments are deleted beyond this many, so the roboRIO never runs out of space
+	 */
+	public static final int MAX_SEGMENT_FILES = 64;
+	static final String SEGMENT_PREFIX = "telemetry-";
+	static final String SEGMENT_SUFFIX = ".bin";
+
+	private static TelemetryLog defaultLog;
+
+	private final File directory;
+	private final int segmentSize;
+	private final long startMillis = System.currentTimeMillis();
+	// name, position units, rate units; indexed by source id
+	private final List<byte[][]> sources = new ArrayList<byte[][]>();
+	private boolean enabled;
+	private MappedByteBuffer segment;
+	private long segmentStartNanos;
+	private int segmentNumber;
+
+	/**
+	 * @return the log under {@link #DEFAULT_DIRECTORY}.  It is disabled anywhere but on the robot.
+	 */
+	public static synchronized TelemetryLog getDefault() {
+		if(defaultLog == null) {
+			File directory = new File(DEFAULT_DIRECTORY);
+			defaultLog = new TelemetryLog(directory, DEFAULT_SEGMENT_SIZE, directory.getParentFile().isDirectory());
+		}
+		return defaultLog;
+	}
+
+	/**
+	 * Create a log that writes segments into a directory, creating it if necessary.
+	 * @param directory where to put the segment files
+	 * @param segmentSize size of each segment file in bytes
+	 */
+	public TelemetryLog(File directory, int segmentSize) {
+		this(directory, segmentSize, true);
+	}
+
+	private TelemetryLog(File directory, int segmentSize, boolean enabled) {
+		if(segmentSize < TelemetryFormat.HEADER_SIZE + 1024) {
+			throw new IllegalArgumentException("Telemetry segments must be at least " + (TelemetryFormat.HEADER_SIZE + 1024) + " bytes, not " + segmentSize);
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return false if records are being ignored, because we're not on the robot or the log couldn't be written
+	 */
+	public synchronized boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Describe something that will be producing records.  Call once, and keep the id.
+	 * @param name name of the subsystem
+	 * @param positionUnits abbreviation of the units positions are recorded in
+	 * @param rateUnits abbreviation of the units rates are recorded in
+	 * @return the source id to pass to {@link #recordMotor(int, MotorOperation, double, double, double, int)}
+	 */
+	public synchronized int registerSource(String name, String positionUnits, String rateUnits) {
+		if(sources.size() > Short.MAX_VALUE) {
+			throw new IllegalStateException("Too many telemetry sources");
+		}
+		byte[][] source = new byte[][] { truncate(name), truncate(positionUnits), truncate(rateUnits) };
+		sources.add(source);
+		int id = sources.size() - 1;
+		if(segment != null) {
+			if(segment.remaining() >= getSourceRecordSize(source)) {
+				writeSource(id);
+			} else {
+				ensureRoom(getSourceRecordSize(source)); // the new segment repeats every source, this one included
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Record a motor sample
+	 * @param source id from {@link #registerSource(String, String, String)}
+	 * @param operation what the motor is doing
+	 * @param position current position, in the source's position units
+	 * @param rate current rate, in the source's rate units
+	 * @param positionError distance from the target position, in the source's position units
+	 * @param flags any of the FLAG_ constants in {@link TelemetryFormat}
+	 */
+	public synchronized void recordMotor(int source, MotorOperation operation, double position, double rate, double positionError, int flags) {
+		if(!enabled) {
+			return;
+		}
+		if(source < 0 || source >= sources.size()) {
+			throw new IllegalArgumentException("Unknown telemetry source " + source);
+		}
+		if(!ensureRoom(TelemetryFormat.MOTOR_RECORD_SIZE)) {
+			return;
+		}
+		segment.put(TelemetryFormat.RECORD_MOTOR);
+		segment.putInt((int)((System.nanoTime() - segmentStartNanos) / 1000));
+		segment.putShort((short)source);
+		segment.put((byte)operation.ordinal());
+		segment.put((byte)flags);
+		segment.putFloat((float)position);
+		segment.putFloat((float)rate);
+		segment.putFloat((float)positionError);
+	}
+
+	/**
+	 * Write everything recorded so far to storage.  The operating system does this on its own
+	 * eventually, so this is only needed to survive losing power, e.g. when the robot is disabled.
+	 */
+	public synchronized void flush() {
+		if(segment != null) {
+			segment.force();
+		}
+	}
+
+	/**
+	 * Make sure the current segment has room for a record, starting a new segment if it doesn't.
+	 * @return false if the log has been disabled
+	 */
+	private boolean ensureRoom(int recordSize) {
+		if(segment != null
+				&& segment.remaining() >= recordSize
+				// record timestamps are microseconds in an int, good for 35 minutes
+				&& System.nanoTime() - segmentStartNanos < Integer.MAX_VALUE * 1000L)
+		{
+			return true;
+		}
+		try {
+			openSegment();
+		} catch(IOException e) {
+			Logger.error("Telemetry disabled, could not write to ", directory, ": ", e);
+			enabled = false;
+			segment = null;
+		}
+		return enabled;
+	}
+
+	private void openSegment() throws IOException {
+		flush();
+		if(!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create " + directory);
+		}
+		deleteOldSegments();
+		File file = new File(directory, String.format("%s%d-%04d%s", SEGMENT_PREFIX, startMillis, segmentNumber++, SEGMENT_SUFFIX));
+		try(RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(0); // never reuse stale records
+			// Mapping past the end grows the file with zeros, so the data is always followed by RECORD_END.
+			// The mapping outlives the channel.
+			segment = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		}
+		segmentStartNanos = System.nanoTime();
+		segment.putInt(TelemetryFormat.MAGIC);
+		segment.putShort(TelemetryFormat.VERSION);
+		segment.putShort(TelemetryFormat.HEADER_SIZE);
+		segment.putLong(System.currentTimeMillis());
+		for(int id = 0; id < sources.size(); id++) {
+			writeSource(id);
+		}
+	}
+
+	private void deleteOldSegments() {
+		File[] segments = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+		if(segments == null || segments.length < MAX_SEGMENT_FILES) {
+			return;
+		}
+		Arrays.sort(segments, Comparator.comparingLong(File::lastModified));
+		for(int i = 0; i <= segments.length - MAX_SEGMENT_FILES; i++) {
+			if(!segments[i].delete()) {
+				Logger.warning("Could not delete old telemetry segment ", segments[i]);
+			}
+		}
+	}
+
+	private void writeSource(int id) {
+		segment.put(TelemetryFormat.RECORD_SOURCE);
+		segment.putShort((short)id);
+		for(byte[] string : sources.get(id)) {
+			segment.put((byte)string.length);
+			segment.put(string);
+		}
+	}
+
+	private static int getSourceRecordSize(byte[][] source) {
+		int size = 1 + 2;
+		for(byte[] string : source) {
+			size += 1 + string.length;
+		}
+		return size;
+	}
+
+	private static byte[] truncate(String string) {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		return bytes.length <= TelemetryFormat.MAX_STRING_LENGTH ? bytes : Arrays.copyOf(bytes, TelemetryFormat.MAX_STRING_LENGTH);
+	}
+}
@@ -0,0 +1,156 @@
+package org.usfirst.frc2813.Robot2018.telemetry;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
+
+/**
+ * Converts segments written by {@link TelemetryLog} to CSV, one row per motor sample.
+ *
+ * Copy the segments off the robot (they're in {@link TelemetryLog#DEFAULT_DIRECTORY}) and run this
+ * with the files, or directories of them, as arguments.  Each telemetry-*.bin gets a telemetry-*.csv next to it.
+ */
+public final class TelemetryReader {
+	public static final String CSV_HEADER = "timestamp_us,source,operation,position,position_units,rate,rate_units,position_error,forward_hard_limit,reverse_hard_limit,disconnected,emulated";
+
+	private TelemetryReader() {
+	}
+
+	/**
+	 * Write one segment as CSV, starting with {@link #CSV_HEADER}
+	 * @param segmentFile the segment to read
+	 * @param out where to write the CSV
+	 * @throws IOException if the segment can't be read or isn't a telemetry segment
+	 */
+	public static void toCsv(File segmentFile, Writer out) throws IOException {
+		ByteBuffer segment;
+		try(RandomAccessFile raf = new RandomAccessFile(segmentFile, "r")) {
+			segment = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+		}
+		if(segment.remaining() < TelemetryFormat.HEADER_SIZE || segment.getInt() != TelemetryFormat.MAGIC) {
+			throw new IOException(segmentFile + " is not a telemetry segment");
+		}
+		short version = segment.getShort();
+		if(version != TelemetryFormat.VERSION) {
+			throw new IOException(segmentFile + " is telemetry version " + version + ", expected " + TelemetryFormat.VERSION);
+		}
+		short headerSize = segment.getShort();
+		long startMicros = segment.getLong() * 1000;
+		segment.position(headerSize);
+
+		MotorOperation[] operations = MotorOperation.values();
+		List<String[]> sources = new ArrayList<String[]>();
+		StringBuilder row = new StringBuilder(128);
+		out.write(CSV_HEADER);
+		out.write('\n');
+		while(segment.hasRemaining()) {
+			int recordStart = segment.position();
+			byte type = segment.get();
+			if(type == TelemetryFormat.RECORD_END) {
+				break;
+			}
+			switch(type) {
+			case TelemetryFormat.RECORD_SOURCE:
+				int id = segment.getShort();
+				String[] source = new String[] { getString(segment), getString(segment), getString(segment) };
+				while(sources.size() <= id) {
+					sources.add(null);
+				}
+				sources.set(id, source);
+				break;
+			case TelemetryFormat.RECORD_MOTOR:
+				long timestamp = startMicros + (segment.getInt() & 0xFFFFFFFFL);
+				int sourceId = segment.getShort();
+				int operation = segment.get() & 0xFF;
+				int flags = segment.get();
+				float position = segment.getFloat();
+				float rate = segment.getFloat();
+				float positionError = segment.getFloat();
+				if(sourceId < 0 || sourceId >= sources.size() || sources.get(sourceId) == null) {
+					throw new IOException(segmentFile + " has a sample from unknown source " + sourceId + " at offset " + recordStart);
+				}
+				String[] s = sources.get(sourceId);
+				row.setLength(0);
+				row.append(timestamp).append(',');
+				appendCsv(row, s[0]).append(',');
+				row.append(operation < operations.length ? operations[operation].name() : Integer.toString(operation)).append(',');
+				row.append(position).append(',');
+				appendCsv(row, s[1]).append(',');
+				row.append(rate).append(',');
+				appendCsv(row, s[2]).append(',');
+				row.append(positionError).append(',');
+				row.append((flags & TelemetryFormat.FLAG_FORWARD_HARD_LIMIT) != 0).append(',');
+				row.append((flags & TelemetryFormat.FLAG_REVERSE_HARD_LIMIT) != 0).append(',');
+				row.append((flags & TelemetryFormat.FLAG_DISCONNECTED) != 0).append(',');
+				row.append((flags & TelemetryFormat.FLAG_EMULATED) != 0).append('\n');
+				out.append(row);
+				break;
+			default:
+				throw new IOException(segmentFile + " has unknown record type " + type + " at offset " + recordStart);
+			}
+		}
+	}
+
+	private static String getString(ByteBuffer segment) {
+		byte[] bytes = new byte[segment.get() & 0xFF];
+		segment.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static StringBuilder appendCsv(StringBuilder row, String value) {
+		if(value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+			return row.append(value);
+		}
+		return row.append('"').append(value.replace("\"", "\"\"")).append('"');
+	}
+
+	/**
+	 * Convert a segment, or every segment in a directory
+	 */
+	private static void process(File f) throws IOException {
+		if(f.isDirectory()) {
+			File[] segments = f.listFiles((dir, name) -> name.startsWith(TelemetryLog.SEGMENT_PREFIX) && name.endsWith(TelemetryLog.SEGMENT_SUFFIX));
+			Arrays.sort(segments);
+			for(File segment : segments) {
+				process(segment);
+			}
+			return;
+		}
+		String name = f.getName();
+		if(name.endsWith(TelemetryLog.SEGMENT_SUFFIX)) {
+			name = name.substring(0, name.length() - TelemetryLog.SEGMENT_SUFFIX.length());
+		}
+		File csv = new File(f.getParentFile(), name + ".csv");
+		try(Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csv), StandardCharsets.UTF_8))) {
+			toCsv(f, out);
+		}
+		System.out.println(f + " -> " + csv);
+	}
+
+	public static void main(String[] args) {
+		if(args.length == 0) {
+			System.err.println("Usage: TelemetryReader <segment or directory>...");
+			System.exit(1);
+		}
+		try {
+			for(String arg : args) {
+				process(new File(arg));
+			}
+		} catch(Throwable t) {
+			t.printStackTrace();
+			System.exit(1);
+		}
+	}
+}
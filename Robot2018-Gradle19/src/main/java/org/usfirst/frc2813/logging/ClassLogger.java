@@ -0,0 +1,290 @@
+package org.usfirst.frc2813.logging;
+
+import java.util.function.Supplier;
+
+import org.usfirst.frc2813.util.Formatter;
+
+/**
+ * A {@link Logger} bound to one channel, with its own level.  Messages from {@link Logger#forClass(Class)}
+ * are prefixed with the class name.  Get one and keep it in a field.
+ * <p>
+ * Like {@link Logger}, the fixed-arity and {@link Supplier} versions allocate nothing when the level is filtered out.
+ */
+public final class ClassLogger {
+	private final String channel;
+	private final String source;
+	private final int channelOffset;
+
+	ClassLogger(String channel, String source, int channelOffset) {
+		this.channel = channel;
+		this.source = source;
+		this.channelOffset = channelOffset;
+	}
+
+	/**
+	 * @see Logger#isEnabled(LogType)
+	 */
+	public boolean isEnabled(LogType severity) {
+		return Logger.isEnabled(channelOffset, severity);
+	}
+
+	/**
+	 * @see Logger#print(LogType, Object...)
+	 */
+	public void print(LogType severity, Object... objects) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, objects);
+		}
+	}
+
+	public void print(LogType severity, Object a) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, a);
+		}
+	}
+
+	public void print(LogType severity, Object a, Object b) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, a, b);
+		}
+	}
+
+	public void print(LogType severity, Object a, Object b, Object c) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, a, b, c);
+		}
+	}
+
+	public void print(LogType severity, Object a, Object b, Object c, Object d) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, a, b, c, d);
+		}
+	}
+
+	public void print(LogType severity, String label, double value) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, label, value);
+		}
+	}
+
+	public void print(LogType severity, String label, long value) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, label, value);
+		}
+	}
+
+	/**
+	 * @see Logger#print(LogType, Supplier)
+	 */
+	public void print(LogType severity, Supplier<?> message) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, message.get());
+		}
+	}
+
+	/**
+	 * @see Logger#printFormat(LogType, String, Object...)
+	 */
+	public void printFormat(LogType severity, String format, Object... objects) {
+		if (isEnabled(severity)) {
+			Logger.emit(source, severity, Formatter.safeFormat(format, objects));
+		}
+	}
+
+	/**
+	 * @see Logger#printLabelled(LogType, String, Object...)
+	 */
+	public void printLabelled(LogType severity, String title, Object... objects) {
+		if (isEnabled(severity)) {
+			Logger.emitLabelled(source, severity, title, objects);
+		}
+	}
+
+	/**
+	 * @see Logger#always(Object...)
+	 */
+	public void always(Object... objects) {
+		print(LogType.ALWAYS, objects);
+	}
+
+	public void always(Object a) {
+		print(LogType.ALWAYS, a);
+	}
+
+	public void always(Object a, Object b) {
+		print(LogType.ALWAYS, a, b);
+	}
+
+	public void always(Object a, Object b, Object c) {
+		print(LogType.ALWAYS, a, b, c);
+	}
+
+	public void always(Object a, Object b, Object c, Object d) {
+		print(LogType.ALWAYS, a, b, c, d);
+	}
+
+	public void always(String label, double value) {
+		print(LogType.ALWAYS, label, value);
+	}
+
+	public void always(String label, long value) {
+		print(LogType.ALWAYS, label, value);
+	}
+
+	/**
+	 * @see Logger#debug(Object...)
+	 */
+	public void debug(Object... objects) {
+		print(LogType.DEBUG, objects);
+	}
+
+	public void debug(Object a) {
+		print(LogType.DEBUG, a);
+	}
+
+	public void debug(Object a, Object b) {
+		print(LogType.DEBUG, a, b);
+	}
+
+	public void debug(Object a, Object b, Object c) {
+		print(LogType.DEBUG, a, b, c);
+	}
+
+	public void debug(Object a, Object b, Object c, Object d) {
+		print(LogType.DEBUG, a, b, c, d);
+	}
+
+	public void debug(String label, double value) {
+		print(LogType.DEBUG, label, value);
+	}
+
+	public void debug(String label, long value) {
+		print(LogType.DEBUG, label, value);
+	}
+
+	/**
+	 * @see Logger#debug(Supplier)
+	 */
+	public void debug(Supplier<?> message) {
+		print(LogType.DEBUG, message);
+	}
+
+	/**
+	 * @see Logger#info(Object...)
+	 */
+	public void info(Object... objects) {
+		print(LogType.INFO, objects);
+	}
+
+	public void info(Object a) {
+		print(LogType.INFO, a);
+	}
+
+	public void info(Object a, Object b) {
+		print(LogType.INFO, a, b);
+	}
+
+	public void info(Object a, Object b, Object c) {
+		print(LogType.INFO, a, b, c);
+	}
+
+	public void info(Object a, Object b, Object c, Object d) {
+		print(LogType.INFO, a, b, c, d);
+	}
+
+	public void info(String label, double value) {
+		print(LogType.INFO, label, value);
+	}
+
+	public void info(String label, long value) {
+		print(LogType.INFO, label, value);
+	}
+
+	/**
+	 * @see Logger#info(Supplier)
+	 */
+	public void info(Supplier<?> message) {
+		print(LogType.INFO, message);
+	}
+
+	/**
+	 * @see Logger#warning(Object...)
+	 */
+	public void warning(Object... objects) {
+		print(LogType.WARNING, objects);
+	}
+
+	public void warning(Object a) {
+		print(LogType.WARNING, a);
+	}
+
+	public void warning(Object a, Object b) {
+		print(LogType.WARNING, a, b);
+	}
+
+	public void warning(Object a, Object b, Object c) {
+		print(LogType.WARNING, a, b, c);
+	}
+
+	public void warning(Object a, Object b, Object c, Object d) {
+		print(LogType.WARNING, a, b, c, d);
+	}
+
+	public void warning(String label, double value) {
+		print(LogType.WARNING, label, value);
+	}
+
+	public void warning(String label, long value) {
+		print(LogType.WARNING, label, value);
+	}
+
+	/**
+	 * @see Logger#warning(Supplier)
+	 */
+	public void warning(Supplier<?> message) {
+		print(LogType.WARNING, message);
+	}
+
+	/**
+	 * @see Logger#error(Object...)
+	 */
+	public void error(Object... objects) {
+		print(LogType.ERROR, objects);
+	}
+
+	public void error(Object a) {
+		print(LogType.ERROR, a);
+	}
+
+	public void error(Object a, Object b) {
+		print(LogType.ERROR, a, b);
+	}
+
+	public void error(Object a, Object b, Object c) {
+		print(LogType.ERROR, a, b, c);
+	}
+
+	public void error(Object a, Object b, Object c, Object d) {
+		print(LogType.ERROR, a, b, c, d);
+	}
+
+	public void error(String label, double value) {
+		print(LogType.ERROR, label, value);
+	}
+
+	public void error(String label, long value) {
+		print(LogType.ERROR, label, value);
+	}
+
+	/**
+	 * @see Logger#error(Supplier)
+	 */
+	public void error(Supplier<?> message) {
+		print(LogType.ERROR, message);
+	}
+
+	@Override
+	public String toString() {
+		return channel;
+	}
+}
@@ -0,0 +1,107 @@
+package org.usfirst.frc2813.logging;
+
+/**
+ * Token bucket for log sites that can fire every periodic, so a fault can't flood the console.
+ * <code>
+ * if (limitWarnings.tryAcquire()) {
+ *     Logger.warning(this, " soft limit has been exceeded.");
+ * }
+ * </code>
+ * Up to burst messages go through at once, then one more per interval.  The rest are counted, and
+ * the next message that goes through is preceded by a "suppressed N times" summary.  If nothing more
+ * is logged, for example because the fault cleared, the logger's background thread prints the summary
+ * once the site has been quiet for an interval.
+ * Keep one per call site in a field, or share one between sites with {@link Logger#limiter(String, LogType)}.
+ */
+public final class LogLimiter {
+	private final String name;
+	private final LogType severity;
+	private final int burst;
+	private final long intervalNanos;
+	private int tokens;
+	private long lastRefillNanos;
+	private long suppressed;
+	private long firstSuppressedNanos;
+	private long lastSuppressedNanos;
+
+	/**
+	 * @param name describes the messages in the summary
+	 * @param severity {@link LogType} of the summary
+	 * @param burst number of messages allowed at once
+	 * @param intervalMillis time to earn one more message
+	 */
+	public LogLimiter(String name, LogType severity, int burst, long intervalMillis) {
+		if(burst < 1 || intervalMillis < 1) {
+			throw new IllegalArgumentException("LogLimiter " + name + " needs a burst and interval of at least one, not " + burst + " and " + intervalMillis);
+		}
+		this.name = name;
+		this.severity = severity;
+		this.burst = burst;
+		this.intervalNanos = intervalMillis * 1000000;
+		this.tokens = burst;
+		this.lastRefillNanos = System.nanoTime();
+		Logger.registerLimiter(this);
+	}
+
+	/**
+	 * Ask to log a message.  Never allocates unless it logs the summary.
+	 * @return true if the message should be logged, false if it was counted as suppressed
+	 */
+	public boolean tryAcquire() {
+		long suppressedCount;
+		long suppressedNanos;
+		synchronized(this) {
+			long now = System.nanoTime();
+			long earned = (now - lastRefillNanos) / intervalNanos;
+			if(earned > 0) {
+				tokens = (int) Math.min(burst, tokens + earned);
+				lastRefillNanos += earned * intervalNanos;
+			}
+			if(tokens == 0) {
+				if(suppressed++ == 0) {
+					firstSuppressedNanos = now;
+				}
+				lastSuppressedNanos = now;
+				return false;
+			}
+			tokens--;
+			suppressedCount = suppressed;
+			suppressedNanos = now - firstSuppressedNanos;
+			suppressed = 0;
+		}
+		if(suppressedCount > 0) {
+			Logger.print(severity, name, ": suppressed ", suppressedCount, " times in the last ", suppressedNanos / 1000000, "ms.");
+		}
+		return true;
+	}
+
+	/**
+	 * Print the summary if messages were suppressed, but none in the last interval
+	 * @param now System.nanoTime()
+	 */
+	void reportIfQuiet(long now) {
+		long suppressedCount;
+		long suppressedNanos;
+		synchronized(this) {
+			if(suppressed == 0 || now - lastSuppressedNanos < intervalNanos) {
+				return;
+			}
+			suppressedCount = suppressed;
+			suppressedNanos = lastSuppressedNanos - firstSuppressedNanos;
+			suppressed = 0;
+		}
+		Logger.print(severity, name, ": suppressed ", suppressedCount, " times over ", suppressedNanos / 1000000, "ms, none since.");
+	}
+
+	/**
+	 * @return the number of messages suppressed since the last summary
+	 */
+	public synchronized long getSuppressedCount() {
+		return suppressed;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
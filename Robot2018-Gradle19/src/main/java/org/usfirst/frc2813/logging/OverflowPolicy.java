@@ -0,0 +1,23 @@
+package org.usfirst.frc2813.logging;
+
+/**
+ * What the {@link Logger} does with a new message when its ring buffer is full.
+ *
+ * NB: The default is {@link OverflowPolicy#DROP_OLDEST DROP_OLDEST}, because a control loop
+ * must never wait on the console and the most recent messages are the ones that explain a fault.
+ */
+public enum OverflowPolicy {
+	/**
+	 * Discard the oldest queued message to make room for the new one.
+	 */
+	DROP_OLDEST,
+	/**
+	 * Discard the new message and keep everything already queued.
+	 */
+	DROP_NEWEST,
+	/**
+	 * Wait until the drain thread makes room.  Nothing is lost, but the calling thread can stall.
+	 * Only use this for offline testing.
+	 */
+	BLOCK
+}
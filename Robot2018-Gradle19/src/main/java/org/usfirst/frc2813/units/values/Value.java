@@ -104,13 +104,10 @@ public abstract class Value<T_UOM extends UOM, T_UV extends Value> {
 		return this.value * uom.getCanonicalUnitQuantity();
 	}
 
-	/* Get the value converted to a different UOM, without creating another object */
+	/* Get the value converted to a different UOM, without creating another object.  Throws IllegalArgumentException if the UOM isn't compatible. */
+	@SuppressWarnings("unchecked")
 	public final double getValueIn(T_UOM uom) {
-		// Make sure it's the same type of measurement
-		if(!isCompatibleWith(uom)) {
-			throw new IllegalArgumentException("Incompatible measurement systems: " + getSystemOfMeasurement() + " and " + uom.getSystemOfMeasurement() + ".");
-		}
-		return getCanonicalValue()/uom.getCanonicalUnitQuantity();
+		return this.value * this.uom.getConversionFactorTo(uom);
 	}
 
 	/* ---------------------------------------------------------------------------------------------------------------
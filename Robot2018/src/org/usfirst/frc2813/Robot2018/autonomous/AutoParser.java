@@ -10,6 +10,8 @@ import org.usfirst.frc2813.Robot2018.commands.drivetrain.DriveTrainAutoStop;
 import org.usfirst.frc2813.Robot2018.commands.solenoid.SolenoidSet;
 import org.usfirst.frc2813.Robot2018.commands.solenoid.SolenoidToggle;
 import org.usfirst.frc2813.units.Direction;
+import org.usfirst.frc2813.units.UnitParser;
+import org.usfirst.frc2813.units.uom.LengthUOM;
 
 import edu.wpi.first.wpilibj.command.Command;
 import edu.wpi.first.wpilibj.command.CommandGroup;
@@ -59,7 +61,8 @@ public class AutoParser extends CommandGroup {
 			switch (s.next()) {
 			case "drive":
 				direction = Direction.valueOf(s.next().toUpperCase());
-				double distance = s.nextDouble();
+				// Inches, unless another unit is given, i.e. "2.5ft"
+				double distance = UnitParser.getDefault().parseLength(s.next(), LengthUOM.Inches).getValueIn(LengthUOM.Inches);
 				if (s.hasNextDouble()) {
 					final double curve = s.nextDouble();
 					final boolean clockwise;
@@ -24,4 +24,9 @@ public interface IMotorController extends IMotor {
 	 * @return True if this motor controller can handle sensor phase reversal.
 	 */
 	public boolean supportsSensorInversion();
+	/**
+	 * Called once at the start of every scheduler loop, enabled or not, before anything reads the sensors.
+	 * Controllers that read their sensors once per loop throw away the last loop's readings here.
+	 */
+	public void startLoop();
 }
@@ -0,0 +1,134 @@
+package org.usfirst.frc2813.Robot2018.motor;
+
+import org.usfirst.frc2813.units.Direction;
+import org.usfirst.frc2813.units.uom.LengthUOM;
+import org.usfirst.frc2813.units.uom.RateUOM;
+import org.usfirst.frc2813.units.values.Length;
+import org.usfirst.frc2813.units.values.Rate;
+
+/**
+ * The readings of a motor's sensors at one moment: position, rate, the errors from the target state and the hard
+ * limit switches.  Immutable.
+ *
+ * The position and position error are null if the motor can't read its position (no ReadPosition capability), and
+ * the rate and rate error are null if it can't read its rate (no ReadRate).  A missing hard limit switch is open.
+ *
+ * The motor controller takes one sample a loop, in sensor units.  MotorControllerUnitConversionAdapter converts it
+ * to display units once, keeping the sensor units sample, so everything reading the motor in that loop sees the
+ * same readings and nothing converts them again.
+ */
+public final class MotorSample {
+	// System.nanoTime() when the sensors were read
+	private final long        timeNanos;
+	private final Length      position;
+	private final Rate        rate;
+	private final boolean     hasTargetPosition;
+	private final Length      positionError;
+	private final Rate        rateError;
+	private final boolean     forwardHardLimitSwitch;
+	private final boolean     reverseHardLimitSwitch;
+	// The sample in sensor units this one was converted from, or this one
+	private final MotorSample sensorSample;
+
+	public MotorSample(long timeNanos, Length position, Rate rate, boolean hasTargetPosition, Length positionError, Rate rateError, boolean forwardHardLimitSwitch, boolean reverseHardLimitSwitch) {
+		this(timeNanos, position, rate, hasTargetPosition, positionError, rateError, forwardHardLimitSwitch, reverseHardLimitSwitch, null);
+	}
+
+	private MotorSample(long timeNanos, Length position, Rate rate, boolean hasTargetPosition, Length positionError, Rate rateError, boolean forwardHardLimitSwitch, boolean reverseHardLimitSwitch, MotorSample sensorSample) {
+		this.timeNanos = timeNanos;
+		this.position = position;
+		this.rate = rate;
+		this.hasTargetPosition = hasTargetPosition;
+		this.positionError = positionError;
+		this.rateError = rateError;
+		this.forwardHardLimitSwitch = forwardHardLimitSwitch;
+		this.reverseHardLimitSwitch = reverseHardLimitSwitch;
+		this.sensorSample = sensorSample != null ? sensorSample : this;
+	}
+
+	public long getTimeNanos() {
+		return timeNanos;
+	}
+	public Length getPosition() {
+		return position;
+	}
+	public Rate getRate() {
+		return rate;
+	}
+	public boolean getHasTargetPosition() {
+		return hasTargetPosition;
+	}
+	// Current position - target position, or zero if there's no target position
+	public Length getPositionError() {
+		return positionError;
+	}
+	// Current rate - target rate, or zero if there's no target rate
+	public Rate getRateError() {
+		return rateError;
+	}
+	// True if the motor has a hard limit switch in that direction and it's active
+	public boolean getHardLimitSwitchStatus(Direction direction) {
+		return direction.isNegative() ? reverseHardLimitSwitch : forwardHardLimitSwitch;
+	}
+	// Same as IMotorState.getCurrentPositionErrorWithin(), true if there's no target position.  False if the position can't be read.
+	public boolean getPositionErrorWithin(Length marginOfError) {
+		if(!hasTargetPosition) {
+			return true;
+		}
+		if(positionError == null) {
+			return false;
+		}
+		return Math.abs(positionError.getValueIn(marginOfError.getUOM())) <= Math.abs(marginOfError.getValue());
+	}
+	// Same as IMotorState.getCurrentRateErrorWithin().  False if the rate can't be read.
+	public boolean getRateErrorWithin(Rate marginOfError) {
+		if(rateError == null) {
+			return false;
+		}
+		return Math.abs(rateError.getValueIn(marginOfError.getUOM())) <= Math.abs(marginOfError.getValue());
+	}
+	// Get the sample in sensor units that this one was converted from
+	public MotorSample getSensorSample() {
+		return sensorSample;
+	}
+
+	/**
+	 * Convert to other units, i.e. from sensor units to display units
+	 * @param lengthUOM units for the position and position error
+	 * @param rateUOM units for the rate and rate error
+	 * @param phaseMultiplier -1 if the sensor phase or motor phase is reversed and the controller doesn't handle it, otherwise 1.  Reversing the phase also swaps the limit switches.
+	 * @return the converted sample
+	 */
+	public MotorSample convertTo(LengthUOM lengthUOM, RateUOM rateUOM, double phaseMultiplier) {
+		boolean invertDirection = phaseMultiplier < 0;
+		return new MotorSample(
+				timeNanos,
+				convert(position, lengthUOM, phaseMultiplier),
+				convert(rate, rateUOM, phaseMultiplier),
+				hasTargetPosition,
+				convert(positionError, lengthUOM, phaseMultiplier),
+				convert(rateError, rateUOM, phaseMultiplier),
+				invertDirection ? reverseHardLimitSwitch : forwardHardLimitSwitch,
+				invertDirection ? forwardHardLimitSwitch : reverseHardLimitSwitch,
+				sensorSample);
+	}
+
+	// One new value for each conversion.  Readings the motor can't take stay null.
+	private static Length convert(Length value, LengthUOM uom, double multiplier) {
+		return value == null ? null : uom.create(value.getValueIn(uom) * multiplier);
+	}
+
+	private static Rate convert(Rate value, RateUOM uom, double multiplier) {
+		return value == null ? null : uom.create(value.getValueIn(uom) * multiplier);
+	}
+
+	public String toString() {
+		return "MotorSample[Pos=" + position
+				+ " Rate=" + rate
+				+ (hasTargetPosition ? " PosErr=" + positionError : "")
+				+ " RateErr=" + rateError
+				+ " FLimit=" + forwardHardLimitSwitch
+				+ " RLimit=" + reverseHardLimitSwitch
+				+ "]";
+	}
+}
@@ -0,0 +1,122 @@
+package org.usfirst.frc2813.Robot2018.motor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
+import org.usfirst.frc2813.Robot2018.motor.state.IMotorState;
+import org.usfirst.frc2813.units.Direction;
+
+/**
+ * Which operations a motor can be asked to do, in each direction, worked out once from the capabilities of its
+ * configuration.  AbstractMotorController checks every state change against it.
+ *
+ * Each entry is zero if the operation is allowed, otherwise the capabilities that are missing, so the reason
+ * for refusing can be described without checking the configuration again.
+ */
+final class MotorTransitionTable {
+	// Capabilities don't change, and the hardware and simulated controllers of a motor share a configuration
+	private static final Map<Long,MotorTransitionTable> tables = new HashMap<Long,MotorTransitionTable>();
+
+	// Neutral directions (IDLE, CENTER, ...) and operations without a target direction use the neutral entry
+	private static final int POSITIVE = 0;
+	private static final int NEGATIVE = 1;
+	private static final int NEUTRAL = 2;
+	private static final int DIRECTIONS = 3;
+
+	// Missing capabilities, indexed by operation ordinal * DIRECTIONS + direction
+	private final long[] missingCapabilities;
+	// True if rates are ignored, because the configuration lacks ControlRate
+	private final boolean ignoresRate;
+
+	private MotorTransitionTable(long capabilities) {
+		MotorOperation[] operations = MotorOperation.values();
+		this.missingCapabilities = new long[operations.length * DIRECTIONS];
+		for(MotorOperation operation : operations) {
+			for(int direction = 0; direction < DIRECTIONS; direction++) {
+				missingCapabilities[operation.ordinal() * DIRECTIONS + direction] = calculateMissingCapabilities(capabilities, operation, direction);
+			}
+		}
+		this.ignoresRate = !hasAll(capabilities, IMotorConfiguration.ControlRate);
+	}
+
+	/**
+	 * Get the table for a configuration, building it the first time its capabilities are seen
+	 */
+	static synchronized MotorTransitionTable forConfiguration(IMotorConfiguration configuration) {
+		Long capabilities = configuration.getCapabilities();
+		MotorTransitionTable table = tables.get(capabilities);
+		if(table == null) {
+			table = new MotorTransitionTable(capabilities);
+			tables.put(capabilities, table);
+		}
+		return table;
+	}
+
+	/**
+	 * @return zero if the configuration allows the state's operation in its direction, otherwise the capabilities it lacks
+	 */
+	long getMissingCapabilities(IMotorState state) {
+		return missingCapabilities[state.getOperation().ordinal() * DIRECTIONS + getColumn(state.getTargetDirection())];
+	}
+
+	private static int getColumn(Direction direction) {
+		if(direction == null || direction.isNeutral()) {
+			return NEUTRAL;
+		}
+		return direction.isNegative() ? NEGATIVE : POSITIVE;
+	}
+
+	boolean getIgnoresRate() {
+		return ignoresRate;
+	}
+
+	// The checks AbstractMotorController used to make on every state change, in the same order.  Those only checked
+	// Forward or Reverse for a positive or negative direction, and the reverse switches unless the direction was positive.
+	private static long calculateMissingCapabilities(long capabilities, MotorOperation operation, int column) {
+		long direction = column == POSITIVE ? IMotorConfiguration.Forward : column == NEGATIVE ? IMotorConfiguration.Reverse : 0;
+		switch(operation) {
+		case DISABLED:
+			return 0;
+		case HOLDING_CURRENT_POSITION:
+		case MOVING_TO_ABSOLUTE_POSITION:
+			return missing(capabilities, IMotorConfiguration.ControlPosition);
+		case MOVING_IN_DIRECTION_AT_RATE:
+			if(!hasAll(capabilities, IMotorConfiguration.ControlDirection)) {
+				return IMotorConfiguration.ControlDirection;
+			}
+			return missing(capabilities, direction);
+		case MOVING_TO_RELATIVE_POSITION:
+			if(!hasAll(capabilities, IMotorConfiguration.ControlPosition)) {
+				return IMotorConfiguration.ControlPosition;
+			}
+			return missing(capabilities, direction);
+		case CALIBRATING_SENSOR_IN_DIRECTION:
+			if(!hasAll(capabilities, IMotorConfiguration.ReadPosition)) {
+				return IMotorConfiguration.ReadPosition;
+			}
+			// Either switch will do
+			long switches = getHardLimitSwitches(column != POSITIVE);
+			return (capabilities & switches) != 0 ? 0 : switches;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * @return the local and remote hard limit switch capabilities for a direction
+	 */
+	static long getHardLimitSwitches(boolean negative) {
+		return negative
+				? IMotorConfiguration.LocalReverseHardLimitSwitch|IMotorConfiguration.RemoteReverseHardLimitSwitch
+				: IMotorConfiguration.LocalForwardHardLimitSwitch|IMotorConfiguration.RemoteForwardHardLimitSwitch;
+	}
+
+	private static boolean hasAll(long capabilities, long required) {
+		return (capabilities & required) == required;
+	}
+
+	private static long missing(long capabilities, long required) {
+		return hasAll(capabilities, required) ? 0 : required;
+	}
+}
@@ -7,13 +7,16 @@ import org.usfirst.frc2813.Robot2018.motor.PIDProfileSlot;
 import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
 import org.usfirst.frc2813.Robot2018.motor.state.IMotorState;
 import org.usfirst.frc2813.Robot2018.motor.state.MotorStateFactory;
+import org.usfirst.frc2813.logging.ClassLogger;
 import org.usfirst.frc2813.logging.LogType;
 import org.usfirst.frc2813.logging.Logger;
 import org.usfirst.frc2813.units.Direction;
+import org.usfirst.frc2813.units.math.LengthMath;
+import org.usfirst.frc2813.units.math.RateMath;
+import org.usfirst.frc2813.units.uom.LengthUOM;
 import org.usfirst.frc2813.units.uom.TimeUOM;
 import org.usfirst.frc2813.units.values.Length;
 import org.usfirst.frc2813.units.values.Rate;
-import org.usfirst.frc2813.units.values.Time;
 
 /**
  * A wrapper class to handle an SRX Talon motor controller.  Assumes all units are already correct.  use MotorUnitConversionAdapter 
@@ -29,20 +32,39 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 	private int encoderValue 						  = 0;
 	private long lastCommandTimestamp 				  = System.currentTimeMillis();
 	private long lastEncoderPositionUpdate            = 0;
+	// Rate when holding or disabled, created once since the simulator asks for it every update
+	private final Rate zeroRate;
 	
 	/* ----------------------------------------------------------------------------------------------
 	 * Debugging
 	 * ---------------------------------------------------------------------------------------------- */
 	
-	private static LogType logLevel = LogType.DEBUG;
+	// Set the level of the org.usfirst.frc2813.Robot2018.motor.simulated.Simulated channel to see the debug output
+	private static final ClassLogger log = Logger.forClass(Simulated.class);
+	/*
+	 * The simulator logs from every periodic update.  Pass the pieces, not a concatenated string,
+	 * so nothing is built when debugging is off.  Guard anything longer with isDebugEnabled().
+	 */
+	private static boolean isDebugEnabled() {
+		return log.isEnabled(LogType.DEBUG);
+	}
 	private static void debug(String message) {
-		Logger.print(logLevel, message);
+		log.print(LogType.DEBUG, message);
+	}
+	private static void debug(String label, Object value) {
+		log.print(LogType.DEBUG, label, value);
+	}
+	private static void debug(String label, long value) {
+		log.print(LogType.DEBUG, label, value);
+	}
+	private static void debug(String label, double value) {
+		log.print(LogType.DEBUG, label, value);
 	}
 	private static void warning(String message) {
-		Logger.print(LogType.ERROR, message);
+		log.print(LogType.ERROR, message);
 	}	
 	private static void error(String message) {
-		Logger.print(LogType.ALWAYS, message);
+		log.print(LogType.ALWAYS, message);
 	}
 
 	/* ----------------------------------------------------------------------------------------------
@@ -51,6 +73,7 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 	
 	public Simulated(IMotorConfiguration configuration) {
 		super(configuration);
+		this.zeroRate = configuration.getDefaultRate().getUOM().create(0);
 		initialize();
 	}
 	
@@ -70,7 +93,9 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 	}
 
 	private synchronized void setEncoderPosition(int pos) {
-		debug("Setting sensor position.  Was " + encoderValue + " Now " + pos);
+		if(isDebugEnabled()) {
+			debug("Setting sensor position.  Was " + encoderValue + " Now " + pos);
+		}
 		this.encoderValue = pos;
 	}
 
@@ -90,7 +115,9 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 			return;
 		}
 		updating = true;		
-		debug("Updating: " + this + " - " + getDiagnostics());
+		if(isDebugEnabled()) {
+			debug("Updating: " + this + " - " + getDiagnostics());
+		}
 		// Don't try to update encoder position before our first command
 		if(currentState == null) {
 			updating = false;
@@ -103,19 +130,21 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 		}
 		// Determine a rate
 		Rate rate = getCurrentRate();
-		debug("Current Rate: " + rate);
+		debug("Current Rate: ", rate);
+		// Work in sensor units, as plain numbers, so the simulation doesn't create values on every update
+		LengthUOM sensorUOM = configuration.getNativeSensorLengthUOM();
 		// Determine starting position
-		Length start = getConfiguration().getNativeSensorLengthUOM().create(encoderValue);
+		double start = encoderValue;
 		// Determine the current time
 		long now = System.currentTimeMillis();
 		if(lastEncoderPositionUpdate == 0) {
 			lastEncoderPositionUpdate = lastCommandTimestamp; 
 		}
 		// Determine an elapsed time
-		Time elapsedTime = TimeUOM.Milliseconds.create(now - lastEncoderPositionUpdate); // TimeUOM.Milliseconds.create(System.currentTimeMillis() - lastCommandTimestamp);
-		debug("Elapsed: " + elapsedTime);
+		long elapsedMillis = now - lastEncoderPositionUpdate;
+		debug("Elapsed (ms): ", elapsedMillis);
 		// Potential travel distance
-		Length distance = rate.getLength(elapsedTime);
+		double distance = RateMath.getLength(rate.getValue(), rate.getUOM(), elapsedMillis, TimeUOM.Milliseconds, sensorUOM);
 		// Determine where we should be based on command and elapsed time
 		switch(currentState.getOperation()) {
 		case DISABLED:
@@ -135,9 +164,10 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 		// No change to encoder position unless you are simulating instability
 		boolean resetEncoderFromHardLimit = false;
 		Direction targetDirection = currentState.getTargetDirection();
+		Length targetAbsolutePosition = currentState.getTargetAbsolutePosition();
 		if(currentState.getOperation() == MotorOperation.MOVING_TO_ABSOLUTE_POSITION || currentState.getOperation() == MotorOperation.MOVING_TO_RELATIVE_POSITION) {
 			targetDirection = 
-					currentState.getTargetAbsolutePosition().getCanonicalValue() < configuration.getNativeSensorLengthUOM().create(encoderValue).getCanonicalValue() 
+					targetAbsolutePosition.getValueIn(sensorUOM) < encoderValue 
 					? Direction.REVERSE 
 					: Direction.FORWARD
 					;
@@ -145,53 +175,59 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 		if(targetDirection == null) {
 			throw new IllegalStateException("Simulator error.  targetDirection is null!");
 		}
-		debug("RawDistance: " + distance);		
-		Length distanceWithSign = distance.multiply(targetDirection.getMultiplierAsDouble());
-		debug("distanceWithSign: " + distanceWithSign);		
+		debug("RawDistance: ", distance);		
+		double distanceWithSign = distance * targetDirection.getMultiplierAsDouble();
+		debug("distanceWithSign: ", distanceWithSign);		
 		// Where would we end up if we were going in the same direction the entire time
-		Length projectedAbsolutePosition = start.add(distanceWithSign);
-		debug("projectedAbsolutePosition: " + projectedAbsolutePosition);		
+		double projectedAbsolutePosition = start + distanceWithSign;
+		debug("projectedAbsolutePosition: ", projectedAbsolutePosition);		
 		// OK, see where PID would have stopped us
-		Length targetAbsolutePosition = currentState.getTargetAbsolutePosition();
 		if(targetAbsolutePosition != null) {
-			projectedAbsolutePosition = Length.clampToLimit(targetDirection, targetAbsolutePosition /* limit */, projectedAbsolutePosition);
-			if(projectedAbsolutePosition.getCanonicalValue() == targetAbsolutePosition.getCanonicalValue()) {
+			double target = targetAbsolutePosition.getValueIn(sensorUOM);
+			projectedAbsolutePosition = LengthMath.clampToLimit(targetDirection, target /* limit */, projectedAbsolutePosition);
+			if(projectedAbsolutePosition == target) {
 				warning("Target Position Reached.");
 				lastCompletedCommand = currentState;
 			}
 		}
-		debug("projectedAbsolutePosition: " + projectedAbsolutePosition);		
-		debug("Start=" + start + " CommandDistance=" + distanceWithSign + " Projected=" + projectedAbsolutePosition + " Target=" + targetAbsolutePosition);
+		debug("projectedAbsolutePosition: ", projectedAbsolutePosition);		
+		if(isDebugEnabled()) {
+			debug("Start=" + start + " CommandDistance=" + distanceWithSign + " Projected=" + projectedAbsolutePosition + " Target=" + targetAbsolutePosition);
+		}
 		// Next, see if a soft limit would have stopped us.
-		Length softLimit = null;
-		if(getHasSoftLimit(targetDirection) && Length.isLimitReached(targetDirection, softLimit = getSoftLimit(targetDirection), projectedAbsolutePosition)) {
-			warning("Soft Limit Reached.  Clamping to " + softLimit + ".");
-			projectedAbsolutePosition = Length.clampToLimit(targetDirection, softLimit, projectedAbsolutePosition);
-			lastCompletedCommand = currentState;
+		if(getHasSoftLimit(targetDirection)) {
+			Length softLimit = getSoftLimit(targetDirection);
+			if(LengthMath.isLimitReached(targetDirection, softLimit.getValueIn(sensorUOM), projectedAbsolutePosition)) {
+				warning("Soft Limit Reached.  Clamping to " + softLimit + ".");
+				projectedAbsolutePosition = LengthMath.clampToLimit(targetDirection, softLimit.getValueIn(sensorUOM), projectedAbsolutePosition);
+				lastCompletedCommand = currentState;
+			}
 		}
 		// Next, see if a hard limit would have stopped us.
-		Length hardLimit = null;
-		if(getHasHardLimit(targetDirection) && Length.isLimitReached(targetDirection, hardLimit = getHardLimit(targetDirection), projectedAbsolutePosition)) {
-			warning("Hard Limit Reached.  Clamping to " + hardLimit + ".");
-			projectedAbsolutePosition = Length.clampToLimit(targetDirection, hardLimit, projectedAbsolutePosition);
-			resetEncoderFromHardLimit = targetDirection.isPositive() ? configuration.getForwardHardLimitSwitchResetsEncoder() : configuration.getReverseHardLimitSwitchResetsEncoder();
-			lastCompletedCommand = currentState;
+		if(getHasHardLimit(targetDirection)) {
+			Length hardLimit = getHardLimit(targetDirection);
+			if(LengthMath.isLimitReached(targetDirection, hardLimit.getValueIn(sensorUOM), projectedAbsolutePosition)) {
+				warning("Hard Limit Reached.  Clamping to " + hardLimit + ".");
+				projectedAbsolutePosition = LengthMath.clampToLimit(targetDirection, hardLimit.getValueIn(sensorUOM), projectedAbsolutePosition);
+				resetEncoderFromHardLimit = targetDirection.isPositive() ? configuration.getForwardHardLimitSwitchResetsEncoder() : configuration.getReverseHardLimitSwitchResetsEncoder();
+				lastCompletedCommand = currentState;
+			}
 		}
 		// Lastly, did we break the robot?
 		Length physicalLimit = getPhysicalLimit(targetDirection);
-		if(Length.isLimitExceeded(targetDirection, physicalLimit, projectedAbsolutePosition)) {
-			projectedAbsolutePosition = Length.clampToLimit(targetDirection, getPhysicalLimit(targetDirection), projectedAbsolutePosition);
+		if(LengthMath.isLimitExceeded(targetDirection, physicalLimit.getValueIn(sensorUOM), projectedAbsolutePosition)) {
+			projectedAbsolutePosition = LengthMath.clampToLimit(targetDirection, physicalLimit.getValueIn(sensorUOM), projectedAbsolutePosition);
 			lastCompletedCommand = currentState;
 			error(this + ": KABOOM!  You just broke the robot.  Moved " + targetDirection + " beyond " + physicalLimit + " and broke the hardware.  Projected=" + projectedAbsolutePosition);
 		}
 		// Now do the hardware-based encoder reset if necessary, which is always zero
 		if(resetEncoderFromHardLimit) {
 			warning("Resetting encoder due to " + targetDirection + " hard limit.");
-			projectedAbsolutePosition = projectedAbsolutePosition.getUOM().create(0);
+			projectedAbsolutePosition = 0;
 		}
 		// Now update the encoder value from our projection
-		int newEncoderValue = toSensorUnits(projectedAbsolutePosition).getValueAsInt();
-		debug("newEncoderValue: " + newEncoderValue);		
+		int newEncoderValue = (int)Math.round(projectedAbsolutePosition);
+		debug("newEncoderValue: ", newEncoderValue);		
 		if(this.encoderValue != newEncoderValue) {
 			setEncoderPosition(newEncoderValue);
 		}
@@ -200,21 +236,21 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 
 	@Override
 	public Rate getCurrentRate() {
-		Rate rate = configuration.getDefaultRate().getUOM().create(0);
+		Rate rate = zeroRate;
 		// Determine the range for rates
 		switch(currentState.getOperation()) {
 		case CALIBRATING_SENSOR_IN_DIRECTION:
 		case MOVING_IN_DIRECTION_AT_RATE:
 			Direction targetDirection = currentState.getTargetDirection();
 			if(currentState.getTargetRate() != null) {
-				debug("currentState.getTargetRate(): " + currentState.getTargetRate());
+				debug("currentState.getTargetRate(): ", currentState.getTargetRate());
 				rate = toSensorUnits(currentState.getTargetRate());
 			} else {
-				debug("configuration.getDefaultRate(): " + configuration.getDefaultRate());
+				debug("configuration.getDefaultRate(): ", configuration.getDefaultRate());
 				rate = toSensorUnits(configuration.getDefaultRate());
 			}
 			rate = Rate.clampToLimit(getMinimumRate(targetDirection), getMaximumRate(targetDirection), rate);
-			debug("VELOCITY RATE: " + rate);
+			debug("VELOCITY RATE: ", rate);
 			break;
 		case DISABLED:
 		case HOLDING_CURRENT_POSITION:
@@ -282,6 +318,7 @@ public final class Simulated extends AbstractMotorController implements IMotorCo
 	public void periodic() {
 		if(!updating) {
 			updateEncoderPosition();
+			discardSample();
 		}
 		super.periodic(); // NB: Always update encoder position before calling superclass, which depends on simulated data!	
 	}
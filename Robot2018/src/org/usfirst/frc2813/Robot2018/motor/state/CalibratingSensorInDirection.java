@@ -13,7 +13,7 @@ public class CalibratingSensorInDirection extends MotorState {
 				null,
 				null,
 				null,
-				motor.getCurrentPosition()
+				null // Not used, and MotorStateFactory reuses these
 				);
 	}
 }
@@ -3,6 +3,8 @@ package org.usfirst.frc2813.Robot2018.motor.state;
 import org.usfirst.frc2813.Robot2018.motor.IMotor;
 import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
 import org.usfirst.frc2813.units.Direction;
+import org.usfirst.frc2813.units.math.LengthMath;
+import org.usfirst.frc2813.units.math.RateMath;
 import org.usfirst.frc2813.units.uom.LengthUOM;
 import org.usfirst.frc2813.units.uom.RateUOM;
 import org.usfirst.frc2813.units.values.Length;
@@ -215,7 +217,12 @@ public class MotorState implements IMotorState {
 
 	@Override
 	public boolean getCurrentPositionErrorWithin(Length marginOfError) {
-		return Math.abs(getCurrentPositionError().getCanonicalValue()) <= Math.abs(marginOfError.getCanonicalValue());
+		if(!getHasTargetPosition()) {
+			return true;
+		}
+		// Compare in the units of the margin, without creating any values
+		LengthUOM uom = marginOfError.getUOM();
+		return Math.abs(getCurrentPositionErrorIn(uom)) <= Math.abs(marginOfError.getValue());
 	}
 
 	@Override
@@ -250,13 +257,30 @@ public class MotorState implements IMotorState {
 
 	@Override
 	public Length getCurrentPositionError() {
-		LengthUOM uom = getHasTargetPosition() ? getTargetAbsolutePosition().getUOM() : motor.getConfiguration().getNativeDisplayLengthUOM();  
 		if(!getHasTargetPosition()) { 
-			return uom.create(0);
+			return motor.getConfiguration().getNativeDisplayLengthUOM().create(0);
+		}
+		// In the units of the target position
+		LengthUOM uom = operation == MotorOperation.MOVING_TO_RELATIVE_POSITION ? startingAbsolutePosition.getUOM() : targetAbsolutePosition.getUOM();
+		return uom.create(getCurrentPositionErrorIn(uom));
+	}
+
+	// Current position - target position, in the specified units.  Only call when there is a target position.
+	private double getCurrentPositionErrorIn(LengthUOM uom) {
+		Length currentPosition = motor.getCurrentPosition();
+		return LengthMath.convert(currentPosition.getValue(), currentPosition.getUOM(), uom) - getTargetAbsolutePositionIn(uom);
+	}
+
+	// Same as getTargetAbsolutePosition(), in the specified units
+	private double getTargetAbsolutePositionIn(LengthUOM uom) {
+		if(operation == MotorOperation.MOVING_TO_RELATIVE_POSITION) {
+			return LengthMath.add(
+					startingAbsolutePosition.getValue(), startingAbsolutePosition.getUOM(),
+					targetRelativeDistance.getValue() * targetDirection.getMultiplierAsDouble(), targetRelativeDistance.getUOM(),
+					uom);
+		} else {
+			return targetAbsolutePosition.getValueIn(uom);
 		}
-		Length convertedCurrentPosition = motor.getCurrentPosition().convertTo(uom);
-		Length currentTargetAbsolutePosition = getTargetAbsolutePosition().convertTo(uom); 
-		return uom.create(convertedCurrentPosition.getValue() - currentTargetAbsolutePosition.getValue());
 	}
 
 	@Override
@@ -267,9 +291,7 @@ public class MotorState implements IMotorState {
 		//RateUOM uom = targetRate.getUOM();
 		RateUOM uom = motor.getConfiguration().getNativeSensorRateUOM();
 		Rate rate = motor.getCurrentRate();
-		Rate convertedCurrentRate = rate.convertTo(uom);
-		Rate convertedTargetRate  = targetRate.convertTo(uom);
-		return uom.create(convertedCurrentRate.getValue() - convertedTargetRate.getValue());
+		return uom.create(RateMath.subtract(rate.getValue(), rate.getUOM(), targetRate.getValue(), targetRate.getUOM(), uom));
 	}
 
 	@Override
@@ -292,6 +314,6 @@ public class MotorState implements IMotorState {
 
 	@Override
 	public boolean getHasStartingAbsolutePosition() {
-		return true; // NB: Could do this only for relative moves, but why not
+		return startingAbsolutePosition != null; // NB: Only moves to a position have one, the other states are reused
 	}
 }
@@ -0,0 +1,135 @@
+package org.usfirst.frc2813.Robot2018.motor.talon;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.usfirst.frc2813.logging.ClassLogger;
+import org.usfirst.frc2813.logging.LogType;
+import org.usfirst.frc2813.logging.Logger;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.ParamEnum;
+
+/**
+ * The configuration last written to a Talon SRX, so configuring it again only writes what changed.
+ *
+ * Every config* call blocks for up to its timeout waiting for the Talon to answer, and configure() makes dozens
+ * of them.  Here they're sent with a timeout of zero, which doesn't wait.  A background thread reads each
+ * parameter back a little later and forgets any that didn't take, so the next configure() writes them again.
+ * Settings made of more than one parameter, like limit switch sources, are only compared, not read back.
+ *
+ * The background thread reads through the same Talon handle the main thread is using, at the same time.  The
+ * Talon's getLastError() belongs to the handle, not the thread, so it may report one of the main thread's calls,
+ * and it isn't used.  A parameter only counts as written if it reads back as the value written.  A failed read
+ * normally returns 0, so the parameter is written again next time, unless the value written was 0.
+ *
+ * If the Talon resets, everything is forgotten and written again.
+ */
+final class TalonConfigurationShadow {
+	// Sends one configuration command, with the given timeout
+	interface Write {
+		ErrorCode write(int timeoutMs);
+	}
+
+	private static final ClassLogger logger = Logger.forChannel(TalonConfigurationShadow.class.getName());
+	// Give the Talon time to apply a write before reading it back
+	private static final long VERIFY_DELAY_MS = 100;
+	// Reading back happens in the background, so it can wait for the answer
+	private static final int VERIFY_TIMEOUT_MS = 10;
+	// Gains are stored as fixed point, so they don't read back exactly
+	private static final double VERIFY_TOLERANCE = 1e-3;
+
+	// One thread reads back for every Talon
+	private static final ScheduledExecutorService verifier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Talon configuration");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final com.ctre.phoenix.motorcontrol.can.TalonSRX mc;
+	private final String name;
+	// Last value written for each setting.  The verifier thread removes the ones that didn't take.
+	private final Map<String,Object> written = new HashMap<String,Object>();
+	// Counts for the log
+	private int writes = 0;
+	private int skipped = 0;
+
+	TalonConfigurationShadow(com.ctre.phoenix.motorcontrol.can.TalonSRX mc, String name) {
+		this.mc = mc;
+		this.name = name;
+	}
+
+	/**
+	 * Write a parameter if it has changed, and read it back later
+	 * @param parameter the parameter the write sets, for reading it back
+	 * @param ordinal the profile slot or PID index of the parameter, or 0
+	 * @param value the value the write sets, as read back
+	 * @param write sends the config command
+	 */
+	void write(ParamEnum parameter, int ordinal, double value, Write write) {
+		String key = parameter + "[" + ordinal + "]";
+		if(write(key, value, write)) {
+			verifier.schedule(() -> verify(key, parameter, ordinal, value), VERIFY_DELAY_MS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Write a setting if it has changed, without reading it back
+	 * @param setting the name of the setting
+	 * @param value everything the write sets, compared with equals()
+	 * @param write sends the config command
+	 * @return true if it was written
+	 */
+	synchronized boolean write(String setting, Object value, Write write) {
+		if(value.equals(written.get(setting))) {
+			skipped++;
+			return false;
+		}
+		ErrorCode errorCode = write.write(TalonSRX.RUNNING_CONFIGURATION_COMMAND_TIMEOUT_MS);
+		writes++;
+		if(errorCode == ErrorCode.OK) {
+			written.put(setting, value);
+		} else {
+			// Try again next time
+			written.remove(setting);
+			logger.print(LogType.WARNING, name, " failed to write ", setting, "=", value, " with error ", errorCode, ".");
+		}
+		return errorCode == ErrorCode.OK;
+	}
+
+	/**
+	 * Forget everything written, if the Talon has reset since the last call.  Call before configuring.
+	 */
+	synchronized void forgetIfReset() {
+		if(mc.hasResetOccurred() && !written.isEmpty()) {
+			logger.print(LogType.INFO, name, " has reset.  Writing its whole configuration again.");
+			written.clear();
+		}
+	}
+
+	/**
+	 * Log how many settings were written and how many were unchanged since the last call, and start counting again
+	 */
+	synchronized void logWrites() {
+		logger.print(LogType.INFO, name, " configuration wrote ", writes, " settings and skipped ", skipped, " unchanged.");
+		writes = 0;
+		skipped = 0;
+	}
+
+	// Runs on the verifier thread.  Only the value read back is used, see the class comment.
+	private void verify(String key, ParamEnum parameter, int ordinal, double value) {
+		double actual = mc.configGetParameter(parameter, ordinal, VERIFY_TIMEOUT_MS);
+		if(Math.abs(actual - value) <= VERIFY_TOLERANCE * Math.max(1, Math.abs(value))) {
+			return;
+		}
+		synchronized(this) {
+			// Unless it's been written again since
+			if(written.remove(key, value)) {
+				logger.print(LogType.WARNING, name, " did not take ", key, "=", value, ".  Read back ", actual, ".  It will be written again next time.");
+			}
+		}
+	}
+}
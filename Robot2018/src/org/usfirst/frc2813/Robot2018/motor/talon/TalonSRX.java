@@ -1,5 +1,6 @@
 package org.usfirst.frc2813.Robot2018.motor.talon;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import org.usfirst.frc2813.Robot2018.motor.AbstractMotorController;
@@ -21,6 +22,8 @@ import com.ctre.phoenix.motorcontrol.FeedbackDevice;
 import com.ctre.phoenix.motorcontrol.LimitSwitchNormal;
 import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.RemoteLimitSwitchSource;
+import com.ctre.phoenix.motorcontrol.SensorCollection;
 
 /**
  * A wrapper class to handle an Talon SRX motor controller.  Assumes all units are already correct.  use MotorUnitConversionAdapter 
@@ -28,6 +31,8 @@ import com.ctre.phoenix.motorcontrol.NeutralMode;
  */
 public final class TalonSRX extends AbstractMotorController {
 	private final com.ctre.phoenix.motorcontrol.can.TalonSRX mc;
+	// What we last wrote to the Talon's configuration
+	private final TalonConfigurationShadow shadow;
 	
 	/* ----------------------------------------------------------------------------------------------
 	 * State
@@ -39,6 +44,29 @@ public final class TalonSRX extends AbstractMotorController {
 	protected ControlMode    lastControlMode          = ControlMode.Position; // Remember last assigned control mode, help us implement state transitions
 	private double           lastControlModeValue     = 0;
 
+	/* ----------------------------------------------------------------------------------------------
+	 * Sensor Snapshot
+	 * ---------------------------------------------------------------------------------------------- */
+
+	// Every sensor read is a JNI call for the latest CAN status frame, and the limit checks, state and diagnostics ask
+	// for the same values many times each loop.  So the first request of each loop reads everything, and the rest of
+	// the loop shares it.  Only the main robot thread reads sensors, so there's no locking.
+	// startLoop() isn't called while the emulator stands in for this controller, so a snapshot is also too old after
+	// one loop period, and it's dropped on every state change and configure().
+	private static final long MAX_SENSOR_SNAPSHOT_AGE_NANOS = 20000000;
+	private boolean          sensorsRead              = false;
+	private long             sensorsReadNanos;
+	private int              sensorPosition;
+	private int              sensorVelocity;
+	private int              sensorClosedLoopError;
+	private boolean          forwardLimitSwitchClosed;
+	private boolean          reverseLimitSwitchClosed;
+	// Sensor values asked for (each was a CAN read before the snapshot) and CAN reads made, this loop and last loop
+	private int              sensorRequests           = 0;
+	private int              sensorReads              = 0;
+	private int              lastLoopSensorRequests   = 0;
+	private int              lastLoopSensorReads      = 0;
+
 	/* ----------------------------------------------------------------------------------------------
 	 * Constants
 	 * ---------------------------------------------------------------------------------------------- */
@@ -59,6 +87,7 @@ public final class TalonSRX extends AbstractMotorController {
 	public TalonSRX(IMotorConfiguration configuration, com.ctre.phoenix.motorcontrol.can.TalonSRX mc) {
 		super(configuration);
 		this.mc = mc;
+		this.shadow = new TalonConfigurationShadow(mc, configuration.getName() + "." + getClass().getSimpleName());
 		initialize();
 	}
 	
@@ -79,16 +108,18 @@ public final class TalonSRX extends AbstractMotorController {
 	
 	@Override
 	public boolean getCurrentHardLimitSwitchStatus(Direction direction) {
+		readSensors();
 		if (direction.isNegative()) {
-			return mc.getSensorCollection().isRevLimitSwitchClosed();
+			return reverseLimitSwitchClosed;
 		} else {
-			return mc.getSensorCollection().isFwdLimitSwitchClosed();
+			return forwardLimitSwitchClosed;
 		}
 	}
 	
 	@Override
 	public final Length getCurrentPosition() {
-		int raw = mc.getSelectedSensorPosition(currentPID.getPIDIndex());
+		readSensors();
+		int raw = sensorPosition;
 		Length length = configuration.getNativeSensorLengthUOM().create(raw); 
 //		Logger.info("readPosition " + raw + " --> " + length);
 		return length;
@@ -104,10 +135,14 @@ public final class TalonSRX extends AbstractMotorController {
 		if(!resetEncoderSensorPosition(PID.Primary, sensorPosition)) {
 			result = false;
 		}
+		// The position in the snapshot is from before the reset
+		forgetSensors();
 		return result;
 	}
 
 	protected boolean executeTransition(IMotorState proposedState) {
+		// Holding uses the position from right now
+		forgetSensors();
 		// New PID/Slot are almost always maintain
 		PIDProfileSlot newSlotIndex        = lastSlot;
 		ControlMode      newControlMode      = ControlMode.Disabled;
@@ -160,6 +195,34 @@ public final class TalonSRX extends AbstractMotorController {
 	 * Internal Helper Functions - Motor Specific
 	 * ---------------------------------------------------------------------------------------------- */
 	
+	/*
+	 * Read every sensor into the snapshot, unless it was already read this loop
+	 */
+	private void readSensors() {
+		sensorRequests++;
+		long now = System.nanoTime();
+		if(sensorsRead && now - sensorsReadNanos < MAX_SENSOR_SNAPSHOT_AGE_NANOS) {
+			return;
+		}
+		sensorPosition           = mc.getSelectedSensorPosition(currentPID.getPIDIndex());
+		sensorVelocity           = mc.getSelectedSensorVelocity(currentPID.getPIDIndex());
+		sensorClosedLoopError    = mc.getClosedLoopError(currentPID.getPIDIndex());
+		SensorCollection sensors = mc.getSensorCollection();
+		forwardLimitSwitchClosed = sensors.isFwdLimitSwitchClosed();
+		reverseLimitSwitchClosed = sensors.isRevLimitSwitchClosed();
+		sensorReads += 5;
+		sensorsRead = true;
+		sensorsReadNanos = now;
+	}
+
+	/*
+	 * Read the sensors again the next time they're asked for
+	 */
+	private void forgetSensors() {
+		sensorsRead = false;
+		discardSample();
+	}
+
 	private int getTimeout() {
 		switch(currentState.getOperation()) {
 		case HOLDING_CURRENT_POSITION:
@@ -177,12 +240,13 @@ public final class TalonSRX extends AbstractMotorController {
 	 */
 	private void setHardLimitSwitchClearsPositionAutomatically(Direction direction, boolean clearPositionAutomatically) {
 			ParamEnum parameter = direction.isNegative() ? ParamEnum.eClearPositionOnLimitR : ParamEnum.eClearPositionOnLimitF;
-			mc.configSetParameter(
+			int value = clearPositionAutomatically ? 1 : 0;
+			shadow.write(parameter, 0, value, timeout -> mc.configSetParameter(
 					parameter, 
-					clearPositionAutomatically ? 1 : 0, 
+					value, 
 					0 /* unused */, 
 					0 /* unused */, 
-					getTimeout());
+					timeout));
 	}
 	
 	/**
@@ -213,7 +277,7 @@ public final class TalonSRX extends AbstractMotorController {
 		// Select relative & reset
 		int rawValue = toSensorUnits(sensorPosition).getValueAsInt();
 		Logger.debug(this + " setting selected sensor " + pid.getPIDIndex() + " to " + rawValue + " (Requested " + sensorPosition + ").");
-		mc.configSelectedFeedbackSensor(FeedbackDevice.CTRE_MagEncoder_Relative, pid.getPIDIndex(), getTimeout());
+		configureSelectedFeedbackSensor(pid);
 		if(true) {
 			// NB: Clear no-op profile slot just to be sure		
 			configurePID(PIDProfileSlot.NoOpPosition, 0, 0, 0, 0);
@@ -267,33 +331,91 @@ public final class TalonSRX extends AbstractMotorController {
 	 * Configure PID values
 	 */
 	public void configurePID(PIDProfileSlot profileSlot, double p, double i, double d, double f) {
-		mc.config_kF(profileSlot.getProfileSlotIndex(), f, getTimeout());
-		mc.config_kP(profileSlot.getProfileSlotIndex(), p, getTimeout());
-		mc.config_kI(profileSlot.getProfileSlotIndex(), i, getTimeout());
-		mc.config_kD(profileSlot.getProfileSlotIndex(), d, getTimeout());
+		int slot = profileSlot.getProfileSlotIndex();
+		shadow.write(ParamEnum.eProfileParamSlot_F, slot, f, timeout -> mc.config_kF(slot, f, timeout));
+		shadow.write(ParamEnum.eProfileParamSlot_P, slot, p, timeout -> mc.config_kP(slot, p, timeout));
+		shadow.write(ParamEnum.eProfileParamSlot_I, slot, i, timeout -> mc.config_kI(slot, i, timeout));
+		shadow.write(ParamEnum.eProfileParamSlot_D, slot, d, timeout -> mc.config_kD(slot, d, timeout));
 		// I'm not sure if someone has to call selectProfileSlot to reload the values or if it's automatically looking at the right ones (guessing the latter)
 	}
+
+	/*
+	 * Use the relative mag encoder for a PID loop
+	 */
+	private void configureSelectedFeedbackSensor(PID pid) {
+		FeedbackDevice device = FeedbackDevice.CTRE_MagEncoder_Relative;
+		shadow.write(ParamEnum.eFeedbackSensorType, pid.getPIDIndex(), device.value, timeout -> mc.configSelectedFeedbackSensor(device, pid.getPIDIndex(), timeout));
+	}
+
+	/*
+	 * Set the allowable closed-loop error for a profile slot
+	 */
+	private void configureAllowableClosedloopError(PIDProfileSlot profileSlot, int allowableError) {
+		int slot = profileSlot.getProfileSlotIndex();
+		shadow.write(ParamEnum.eProfileParamSlot_AllowableErr, slot, allowableError, timeout -> mc.configAllowableClosedloopError(slot, allowableError, timeout));
+	}
 	
-	public String getDiagnotics() {
+	@Override
+	public String getDiagnostics() {
 		return super.getDiagnostics()
 				+ (configuration.hasAll(IMotorConfiguration.Disconnected) ? "" :
 				  " [ControlMode=" + lastControlMode
 				+ ", ControlModeValue=" + lastControlModeValue
 				+ ", SlotIndex=" + lastSlot
 				+ ", PIDIndex=" + currentPID
+				+ ", ClosedLoopError=" + getCurrentClosedLoopError()
+				+ ", CANReadsLastLoop=" + lastLoopSensorReads + " of " + lastLoopSensorRequests
 				+ "]");
 	}
+
+	/**
+	 * Get the closed loop error of the primary PID, in sensor units
+	 */
+	public int getCurrentClosedLoopError() {
+		readSensors();
+		return sensorClosedLoopError;
+	}
+
+	/**
+	 * Get the number of sensor values read over CAN last loop.  Compare to getSensorRequestsLastLoop().
+	 */
+	public int getSensorReadsLastLoop() {
+		return lastLoopSensorReads;
+	}
+
+	/**
+	 * Get the number of sensor values asked for last loop, which is how many CAN reads there would be without the snapshot
+	 */
+	public int getSensorRequestsLastLoop() {
+		return lastLoopSensorRequests;
+	}
+
+	@Override
+	public void startLoop() {
+		super.startLoop();
+		lastLoopSensorRequests = sensorRequests;
+		lastLoopSensorReads = sensorReads;
+		sensorRequests = 0;
+		sensorReads = 0;
+		sensorsRead = false;
+	}
 	
 	@Override
 	public void configure() {
+		// The snapshot may be from before the emulator took over
+		forgetSensors();
 		// Start disabled
 		changeState(MotorStateFactory.createDisabled(this));
+		// Only what changed since the last time is written, unless the Talon has reset
+		shadow.forgetIfReset();
 		
 		// set the peak and nominal outputs, 12V means full
-		mc.configNominalOutputForward(0, getTimeout());
-		mc.configNominalOutputReverse(0, getTimeout());
-		mc.configPeakOutputForward(configuration.getPeakOutputForward(), getTimeout());
-		mc.configPeakOutputReverse(configuration.getPeakOutputReverse(), getTimeout());
+		double peakOutputForward = configuration.getPeakOutputForward();
+		double peakOutputReverse = configuration.getPeakOutputReverse();
+		shadow.write(ParamEnum.eNominalPosOutput, 0, 0, timeout -> mc.configNominalOutputForward(0, timeout));
+		shadow.write(ParamEnum.eNominalNegOutput, 0, 0, timeout -> mc.configNominalOutputReverse(0, timeout));
+		shadow.write(ParamEnum.ePeakPosOutput, 0, peakOutputForward, timeout -> mc.configPeakOutputForward(peakOutputForward, timeout));
+		shadow.write(ParamEnum.ePeakNegOutput, 0, peakOutputReverse, timeout -> mc.configPeakOutputReverse(peakOutputReverse, timeout));
 		
 //		correctRelativeEncodersFromAbsolute();
 		
@@ -304,57 +426,53 @@ public final class TalonSRX extends AbstractMotorController {
 		configurePID(PIDProfileSlot.ProfileSlot3, 0, 0, 0, 0);
 
 		// Start with primary PID set to relative
-		mc.configSelectedFeedbackSensor(FeedbackDevice.CTRE_MagEncoder_Relative, currentPID.getPIDIndex(), getTimeout());
+		configureSelectedFeedbackSensor(currentPID);
 		/*
 		 * set the allowable closed-loop error, Closed-Loop output will be neutral
 		 * within this range. See Table in Section 17.2.1 for native units per rotation.
 		 */
-		mc.configAllowableClosedloopError(PIDProfileSlot.ProfileSlot0.getProfileSlotIndex(), 0, getTimeout());
-		mc.configAllowableClosedloopError(PIDProfileSlot.ProfileSlot1.getProfileSlotIndex(), 0, getTimeout());
-		mc.configAllowableClosedloopError(PIDProfileSlot.ProfileSlot2.getProfileSlotIndex(), 0, getTimeout());
-		mc.configAllowableClosedloopError(PIDProfileSlot.ProfileSlot3.getProfileSlotIndex(), 0, getTimeout());
+		configureAllowableClosedloopError(PIDProfileSlot.ProfileSlot0, 0);
+		configureAllowableClosedloopError(PIDProfileSlot.ProfileSlot1, 0);
+		configureAllowableClosedloopError(PIDProfileSlot.ProfileSlot2, 0);
+		configureAllowableClosedloopError(PIDProfileSlot.ProfileSlot3, 0);
 		// Disable clearing position on quad index, we don't support/use it and this restores SRX default.
-		mc.configSetParameter(ParamEnum.eClearPositionOnQuadIdx, 0 /* disabled */, 0 /* unused */, 0 /* unused */, getTimeout());
+		shadow.write(ParamEnum.eClearPositionOnQuadIdx, 0, 0, timeout -> mc.configSetParameter(ParamEnum.eClearPositionOnQuadIdx, 0 /* disabled */, 0 /* unused */, 0 /* unused */, timeout));
 		
 		// Set forward hard limits.  NB: You won't have both local and remote, so it's ok that they both are writing to clear flag here.
 		if(configuration.hasAll(IMotorConfiguration.Forward|IMotorConfiguration.LimitPosition|IMotorConfiguration.LocalForwardHardLimitSwitch)) {
-			mc.configForwardLimitSwitchSource(LimitSwitchSource.FeedbackConnector, configuration.getForwardHardLimitSwitchNormal(), getTimeout());
+			configureForwardLimitSwitchSource(LimitSwitchSource.FeedbackConnector, configuration.getForwardHardLimitSwitchNormal());
 			setHardLimitSwitchClearsPositionAutomatically(Direction.FORWARD, configuration.getForwardHardLimitSwitchResetsEncoder());
 		} else if(configuration.hasAll(IMotorConfiguration.Forward|IMotorConfiguration.LimitPosition|IMotorConfiguration.RemoteForwardHardLimitSwitch)) {
-			mc.configForwardLimitSwitchSource(configuration.getRemoteForwardHardLimitSwitchSource(), configuration.getForwardHardLimitSwitchNormal(), configuration.getRemoteForwardHardLimitSwitchDeviceId(), getTimeout());
+			configureForwardLimitSwitchSource(configuration.getRemoteForwardHardLimitSwitchSource(), configuration.getForwardHardLimitSwitchNormal(), configuration.getRemoteForwardHardLimitSwitchDeviceId());
 //			setHardLimitSwitchClearsPositionAutomatically(Direction.FORWARD, configuration.getForwardHardLimitSwitchResetsEncoder());
 setHardLimitSwitchClearsPositionAutomatically(Direction.FORWARD, false);			
 		} else {
-			mc.configForwardLimitSwitchSource(LimitSwitchSource.Deactivated, LimitSwitchNormal.Disabled, getTimeout());
+			configureForwardLimitSwitchSource(LimitSwitchSource.Deactivated, LimitSwitchNormal.Disabled);
 			setHardLimitSwitchClearsPositionAutomatically(Direction.FORWARD, false);
 		}
 		// Set reverse hard limits.  NB: You won't have both local and remote, so it's ok that they both are writing to clear flag here.
 		if(configuration.hasAll(IMotorConfiguration.Reverse|IMotorConfiguration.LimitPosition|IMotorConfiguration.LocalReverseHardLimitSwitch)) {
-			mc.configReverseLimitSwitchSource(LimitSwitchSource.FeedbackConnector, configuration.getReverseHardLimitSwitchNormal(), getTimeout());
+			configureReverseLimitSwitchSource(LimitSwitchSource.FeedbackConnector, configuration.getReverseHardLimitSwitchNormal());
 //			setHardLimitSwitchClearsPositionAutomatically(Direction.REVERSE, configuration.getReverseHardLimitSwitchResetsEncoder());
 setHardLimitSwitchClearsPositionAutomatically(Direction.REVERSE, false);			
 		} else if(configuration.hasAll(IMotorConfiguration.Reverse|IMotorConfiguration.LimitPosition|IMotorConfiguration.RemoteReverseHardLimitSwitch)) {
-			mc.configReverseLimitSwitchSource(configuration.getRemoteReverseHardLimitSwitchSource(), configuration.getReverseHardLimitSwitchNormal(), configuration.getRemoteReverseHardLimitSwitchDeviceId(), getTimeout());
+			configureReverseLimitSwitchSource(configuration.getRemoteReverseHardLimitSwitchSource(), configuration.getReverseHardLimitSwitchNormal(), configuration.getRemoteReverseHardLimitSwitchDeviceId());
 			setHardLimitSwitchClearsPositionAutomatically(Direction.REVERSE, configuration.getReverseHardLimitSwitchResetsEncoder());
 		} else {
-			mc.configReverseLimitSwitchSource(LimitSwitchSource.Deactivated, LimitSwitchNormal.Disabled, getTimeout());
+			configureReverseLimitSwitchSource(LimitSwitchSource.Deactivated, LimitSwitchNormal.Disabled);
 			setHardLimitSwitchClearsPositionAutomatically(Direction.REVERSE, false);
 		}
 		// Set forward soft limit
 		if(configuration.hasAll(IMotorConfiguration.Forward|IMotorConfiguration.LimitPosition|IMotorConfiguration.ForwardSoftLimitSwitch)) {
-			mc.configForwardSoftLimitEnable(true, getTimeout());
-			mc.configForwardSoftLimitThreshold(getForwardSoftLimit().getValueAsInt(), getTimeout());
+			configureForwardSoftLimit(true, getForwardSoftLimit().getValueAsInt());
 		} else {
-			mc.configForwardSoftLimitThreshold(0, getTimeout()); // Clear it so it's not confusing us in RoboRio Web UI
-			mc.configForwardSoftLimitEnable(false, getTimeout());
+			configureForwardSoftLimit(false, 0); // Clear it so it's not confusing us in RoboRio Web UI
 		}
 		// Set reverse soft limit
 		if(configuration.hasAll(IMotorConfiguration.Reverse|IMotorConfiguration.LimitPosition|IMotorConfiguration.ReverseSoftLimitSwitch)) {
-			mc.configReverseSoftLimitEnable(true, getTimeout());
-			mc.configReverseSoftLimitThreshold(getReverseSoftLimit().getValueAsInt(), getTimeout());
+			configureReverseSoftLimit(true, getReverseSoftLimit().getValueAsInt());
 		} else {
-			mc.configReverseSoftLimitThreshold(0, getTimeout()); // Clear it so it's not confusing us in RoboRio Web UI
-			mc.configReverseSoftLimitEnable(false, getTimeout());
+			configureReverseSoftLimit(false, 0); // Clear it so it's not confusing us in RoboRio Web UI
 		}
 		mc.setSensorPhase(configuration.getSensorPhaseIsReversed());
 		mc.setInverted(configuration.getMotorPhaseIsReversed());
@@ -366,9 +484,12 @@ setHardLimitSwitchClearsPositionAutomatically(Direction.REVERSE, false);
 		}
 		// Configure current limits
 		if(configuration.hasAny(IMotorConfiguration.StaticCurrentLimit)) {
-			mc.configPeakCurrentLimit(configuration.getPeakCurrentLimit(), getTimeout());
-			mc.configPeakCurrentDuration(configuration.getPeakCurrentDurationMs(), getTimeout());
-			mc.configContinuousCurrentLimit(configuration.getContinuousCurrentLimit(), getTimeout());
+			int peakCurrentLimit = configuration.getPeakCurrentLimit();
+			int peakCurrentDurationMs = configuration.getPeakCurrentDurationMs();
+			int continuousCurrentLimit = configuration.getContinuousCurrentLimit();
+			shadow.write(ParamEnum.ePeakCurrentLimitAmps, 0, peakCurrentLimit, timeout -> mc.configPeakCurrentLimit(peakCurrentLimit, timeout));
+			shadow.write(ParamEnum.ePeakCurrentLimitMs, 0, peakCurrentDurationMs, timeout -> mc.configPeakCurrentDuration(peakCurrentDurationMs, timeout));
+			shadow.write(ParamEnum.eContinuousCurrentLimitAmps, 0, continuousCurrentLimit, timeout -> mc.configContinuousCurrentLimit(continuousCurrentLimit, timeout));
 			mc.enableCurrentLimit(true);		
 		} else {
 			mc.enableCurrentLimit(false);
@@ -386,6 +507,55 @@ setHardLimitSwitchClearsPositionAutomatically(Direction.REVERSE, false);
 	 	    		pidConfiguration.getF());
 	 	    Logger.info(this + " loaded : " + pidConfiguration);
 		}
+		shadow.logWrites();
+	}
+
+	/*
+	 * Set where the forward limit switch is wired
+	 */
+	private void configureForwardLimitSwitchSource(LimitSwitchSource source, LimitSwitchNormal normal) {
+		shadow.write("ForwardLimitSwitchSource", Arrays.<Object>asList(source, normal), timeout -> mc.configForwardLimitSwitchSource(source, normal, timeout));
+	}
+
+	private void configureForwardLimitSwitchSource(RemoteLimitSwitchSource source, LimitSwitchNormal normal, int deviceId) {
+		shadow.write("ForwardLimitSwitchSource", Arrays.<Object>asList(source, normal, deviceId), timeout -> mc.configForwardLimitSwitchSource(source, normal, deviceId, timeout));
+	}
+
+	/*
+	 * Set where the reverse limit switch is wired
+	 */
+	private void configureReverseLimitSwitchSource(LimitSwitchSource source, LimitSwitchNormal normal) {
+		shadow.write("ReverseLimitSwitchSource", Arrays.<Object>asList(source, normal), timeout -> mc.configReverseLimitSwitchSource(source, normal, timeout));
+	}
+
+	private void configureReverseLimitSwitchSource(RemoteLimitSwitchSource source, LimitSwitchNormal normal, int deviceId) {
+		shadow.write("ReverseLimitSwitchSource", Arrays.<Object>asList(source, normal, deviceId), timeout -> mc.configReverseLimitSwitchSource(source, normal, deviceId, timeout));
+	}
+
+	/*
+	 * Set the forward soft limit.  Enabling sets the threshold second, disabling clears it first, as before.
+	 */
+	private void configureForwardSoftLimit(boolean enable, int threshold) {
+		if(enable) {
+			shadow.write(ParamEnum.eForwardSoftLimitEnable, 0, 1, timeout -> mc.configForwardSoftLimitEnable(true, timeout));
+		}
+		shadow.write(ParamEnum.eForwardSoftLimitThreshold, 0, threshold, timeout -> mc.configForwardSoftLimitThreshold(threshold, timeout));
+		if(!enable) {
+			shadow.write(ParamEnum.eForwardSoftLimitEnable, 0, 0, timeout -> mc.configForwardSoftLimitEnable(false, timeout));
+		}
+	}
+
+	/*
+	 * Set the reverse soft limit.  Enabling sets the threshold second, disabling clears it first, as before.
+	 */
+	private void configureReverseSoftLimit(boolean enable, int threshold) {
+		if(enable) {
+			shadow.write(ParamEnum.eReverseSoftLimitEnable, 0, 1, timeout -> mc.configReverseSoftLimitEnable(true, timeout));
+		}
+		shadow.write(ParamEnum.eReverseSoftLimitThreshold, 0, threshold, timeout -> mc.configReverseSoftLimitThreshold(threshold, timeout));
+		if(!enable) {
+			shadow.write(ParamEnum.eReverseSoftLimitEnable, 0, 0, timeout -> mc.configReverseSoftLimitEnable(false, timeout));
+		}
 	}
 
 	public String toString() {
@@ -394,7 +564,8 @@ setHardLimitSwitchClearsPositionAutomatically(Direction.REVERSE, false);
 
 	@Override
 	public Rate getCurrentRate() {
-		return configuration.getNativeSensorRateUOM().create(mc.getSelectedSensorVelocity(currentPID.getPIDIndex()));
+		readSensors();
+		return configuration.getNativeSensorRateUOM().create(sensorVelocity);
 	}
 
 	@Override
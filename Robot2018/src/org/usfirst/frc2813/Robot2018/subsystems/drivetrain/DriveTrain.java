@@ -9,6 +9,8 @@ import org.usfirst.frc2813.Robot2018.commands.drivetrain.DriveTrainOIDriveWithPI
 import org.usfirst.frc2813.Robot2018.subsystems.GearheadsSubsystem;
 import org.usfirst.frc2813.Robot2018.subsystems.solenoid.GearShiftConfiguration;
 import org.usfirst.frc2813.Robot2018.subsystems.solenoid.Solenoid;
+import org.usfirst.frc2813.logging.LogLimiter;
+import org.usfirst.frc2813.logging.LogType;
 import org.usfirst.frc2813.logging.Logger;
 import org.usfirst.frc2813.units.Direction;
 
@@ -198,6 +200,8 @@ public class DriveTrain extends GearheadsSubsystem {
 	}
 
 	static boolean sentEncoderWarnings = false;
+	// getDistance() is called several times a loop, don't repeat the same error every time
+	private static final LogLimiter encoderErrors = Logger.limiter("DriveTrain encoders", LogType.ERROR);
 	/**
 	 * Return the distance the robot has traveled in inches since the last call to
 	 * driveTrain.reset(), or robot program start, whichever
@@ -235,10 +239,9 @@ public class DriveTrain extends GearheadsSubsystem {
 			return encoderRight.getDistance();
 		}
 		else {
-//			if(!sentEncoderWarnings) {
+			if(encoderErrors.tryAcquire()) {
 				Logger.error("ERROR: Both drive train encoders are non-functional.  Returning zero.");
-//				sentEncoderWarnings = true;
-//			}
+			}
 			return 0;
 		}
 	}
@@ -106,12 +106,12 @@ public class ElevatorConfiguration extends MotorConfiguration {
 		System.out.println("[Conversion Table]");
 		System.out.println("Elevator SRX Revolution..........." + ElevatorSRXMotorRevolution.getValue());
 
-		Iterator<UOM> i = UOM.allUnits.get(SystemOfMeasurement.Length).iterator();
+		Iterator<UOM> i = UOM.getUnitsOfMeasure(SystemOfMeasurement.Length).iterator();
 		while(i.hasNext()) {
 			System.out.println("                                  " + ElevatorSRXMotorRevolution.getValue().convertTo((LengthUOM)i.next()));
 		}
 		System.out.println("Elevator SRX Rate................." + ElevatorSRXMotorPulseRate);
-		i = UOM.allUnits.get(SystemOfMeasurement.Rate).iterator();
+		i = UOM.getUnitsOfMeasure(SystemOfMeasurement.Rate).iterator();
 		while(i.hasNext()) {
 			System.out.println("                                  " + ElevatorSRXMotorPulseRate.getValue().convertTo((RateUOM)i.next()));
 		}
@@ -0,0 +1,51 @@
+package org.usfirst.frc2813.Robot2018.telemetry;
+
+/**
+ * Layout of the binary telemetry segments written by {@link TelemetryLog} and read by {@link TelemetryReader}.
+ *
+ * Every segment file starts with a header:
+ * <pre>
+ * int   MAGIC
+ * short VERSION
+ * short HEADER_SIZE
+ * long  wall clock time the segment was started, in milliseconds since the epoch
+ * </pre>
+ * followed by records, each starting with a one byte type.  Multi-byte values are big endian.
+ * <pre>
+ * RECORD_SOURCE: short source id, then name, position units and rate units as (byte length, UTF-8 bytes)
+ * RECORD_MOTOR:  int microseconds since the segment started, short source id, byte {@link org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation MotorOperation} ordinal,
+ *                byte flags, float position, float rate, float position error
+ * </pre>
+ * Segments are pre-sized and zero filled, so a {@link #RECORD_END} byte marks the end of the data.
+ * Every segment repeats the source records it needs, so each one can be read on its own.
+ */
+public final class TelemetryFormat {
+	public static final int   MAGIC       = 0x32383133; // "2813"
+	public static final short VERSION     = 1;
+	public static final short HEADER_SIZE = 16;
+
+	public static final byte RECORD_END    = 0;
+	public static final byte RECORD_SOURCE = 1;
+	public static final byte RECORD_MOTOR  = 2;
+
+	/**
+	 * Size of a {@link #RECORD_MOTOR} record, including the type byte
+	 */
+	public static final int MOTOR_RECORD_SIZE = 1 + 4 + 2 + 1 + 1 + 4 + 4 + 4;
+	/**
+	 * Longest string stored in a {@link #RECORD_SOURCE} record, in bytes
+	 */
+	public static final int MAX_STRING_LENGTH = 255;
+
+	/** The forward hardware limit switch is active */
+	public static final int FLAG_FORWARD_HARD_LIMIT = 1 << 0;
+	/** The reverse hardware limit switch is active */
+	public static final int FLAG_REVERSE_HARD_LIMIT = 1 << 1;
+	/** The motor is disconnected by configuration, position and rate are meaningless */
+	public static final int FLAG_DISCONNECTED       = 1 << 2;
+	/** The motor is running on the simulator instead of the hardware */
+	public static final int FLAG_EMULATED           = 1 << 3;
+
+	private TelemetryFormat() {
+	}
+}
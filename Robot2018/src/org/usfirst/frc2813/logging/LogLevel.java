@@ -1,7 +1,5 @@
 package org.usfirst.frc2813.logging;
 
-import java.util.Arrays;
-
 public enum LogLevel {
 	/**
 	 * Like {@link LogLevel#ALL all}, but with traceback prints on <b>all</b> log levels
@@ -41,11 +39,14 @@ public enum LogLevel {
 	 * <p>Logs of level {@link LogType#ALWAYS always} <b>will still be printed</b></p>
 	 */
 	NONE();
-	private LogType[] includedLevels;
+	// Indexed by LogType ordinal, so the check is an array lookup and never allocates
+	private final boolean[] includedLevels = new boolean[LogType.values().length];
 	boolean showTrace = false;//
 
 	LogLevel(LogType... severities) {
-		includedLevels = severities;
+		for (LogType severity : severities) {
+			includedLevels[severity.ordinal()] = true;
+		}
 	}
 
 	LogLevel(boolean showTrace, LogType... severities) {
@@ -57,6 +58,6 @@ public enum LogLevel {
 		if (severity == LogType.ALWAYS) {
 			return true;
 		}
-		return Arrays.asList(includedLevels).contains(severity);
+		return includedLevels[severity.ordinal()];
 	}
 }
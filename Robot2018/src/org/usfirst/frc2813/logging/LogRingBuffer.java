@@ -0,0 +1,208 @@
+package org.usfirst.frc2813.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, lock-free queue of formatted log lines with a single background thread that
+ * drains them to the console.
+ *
+ * Any number of threads (scheduler loop, PID callbacks, autonomous thread) may call
+ * {@link #offer(PrintLevel, String)} at the same time.  A call never takes a lock and never
+ * touches the console, so it costs a couple of atomic operations no matter how slow
+ * the console is.  When the buffer is full the {@link OverflowPolicy} decides what gives.
+ *
+ * This is Dmitry Vyukov's bounded MPMC queue.  Every slot carries a sequence number which
+ * says whether it is free for the producer at a given position, or holds a message for
+ * the consumer at that position.
+ */
+final class LogRingBuffer {
+	/**
+	 * How long the drain thread sleeps when there is nothing to print
+	 */
+	private static final long IDLE_PARK_NANOS = 2000000;
+	/**
+	 * How long a producer waits for room when the policy is {@link OverflowPolicy#BLOCK BLOCK}
+	 */
+	private static final long BLOCKED_PARK_NANOS = 100000;
+	/**
+	 * How often the drain thread runs the idle task, at most
+	 */
+	private static final long IDLE_TASK_INTERVAL_NANOS = 1000000000;
+
+	private final int mask;
+	private final AtomicLongArray sequences;
+	private final PrintLevel[] levels;
+	private final String[] messages;
+	// Next position to write
+	private final AtomicLong tail = new AtomicLong();
+	// Next position to read
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong droppedMessages = new AtomicLong();
+	private final AtomicLong reportedDroppedMessages = new AtomicLong();
+	private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+	private final Thread drainThread;
+	private final Runnable idleTask;
+	private long lastIdleTaskNanos = System.nanoTime();
+
+	/**
+	 * Create the buffer and start its drain thread
+	 * @param capacity number of messages that can be queued.  Must be a power of two.
+	 * @param idleTask run by the drain thread about once a second, when there is nothing to print
+	 */
+	LogRingBuffer(int capacity, Runnable idleTask) {
+		if(capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Log buffer capacity must be a power of two, not " + capacity);
+		}
+		this.mask = capacity - 1;
+		this.sequences = new AtomicLongArray(capacity);
+		this.levels = new PrintLevel[capacity];
+		this.messages = new String[capacity];
+		this.idleTask = idleTask;
+		for(int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+		this.drainThread = new Thread(this::drain, "Logger");
+		this.drainThread.setDaemon(true);
+		this.drainThread.setPriority(Thread.MIN_PRIORITY);
+		this.drainThread.start();
+		// Don't lose the last words of the program
+		Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "Logger shutdown"));
+	}
+
+	/**
+	 * Queue a message for printing.  Never blocks unless the policy is {@link OverflowPolicy#BLOCK BLOCK}.
+	 * @param level where to print it
+	 * @param message what to print
+	 * @return false if the message was dropped
+	 */
+	boolean offer(PrintLevel level, String message) {
+		while(true) {
+			long position = tail.get();
+			int index = (int)(position & mask);
+			long available = sequences.get(index) - position;
+			if(available == 0) {
+				if(tail.compareAndSet(position, position + 1)) {
+					levels[index] = level;
+					messages[index] = message;
+					sequences.lazySet(index, position + 1); // publish
+					return true;
+				}
+			} else if(available < 0) {
+				// Full
+				switch(overflowPolicy) {
+				case DROP_NEWEST:
+					droppedMessages.incrementAndGet();
+					return false;
+				case DROP_OLDEST:
+					if(take(false)) {
+						droppedMessages.incrementAndGet();
+					}
+					break;
+				case BLOCK:
+				default:
+					LockSupport.unpark(drainThread);
+					LockSupport.parkNanos(this, BLOCKED_PARK_NANOS);
+					break;
+				}
+			}
+			// else we lost a race with another producer, try the next position
+		}
+	}
+
+	/**
+	 * Remove the oldest message, and print it if asked to.
+	 * @return false if the buffer was empty
+	 */
+	private boolean take(boolean print) {
+		while(true) {
+			long position = head.get();
+			int index = (int)(position & mask);
+			long available = sequences.get(index) - (position + 1);
+			if(available == 0) {
+				if(head.compareAndSet(position, position + 1)) {
+					PrintLevel level = levels[index];
+					String message = messages[index];
+					levels[index] = null;
+					messages[index] = null;
+					sequences.lazySet(index, position + mask + 1); // free the slot for the next lap
+					if(print) {
+						level.print(message);
+					}
+					return true;
+				}
+			} else if(available < 0) {
+				return false;
+			}
+			// else we lost a race with another consumer, try again
+		}
+	}
+
+	/**
+	 * Tell the console about messages that were dropped since the last report
+	 */
+	private void reportDroppedMessages() {
+		long dropped = droppedMessages.get();
+		long previous = reportedDroppedMessages.getAndSet(dropped);
+		if(dropped != previous) {
+			PrintLevel.WARNING.print("[Logger] " + (dropped - previous) + " messages dropped (" + overflowPolicy + ", " + dropped + " total).");
+		}
+	}
+
+	/**
+	 * Body of the drain thread
+	 */
+	private void drain() {
+		while(true) {
+			if(!take(true)) {
+				reportDroppedMessages();
+				runIdleTask();
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			}
+		}
+	}
+
+	/**
+	 * Run the idle task if it's been long enough.  It may log, there's room since the buffer is empty.
+	 */
+	private void runIdleTask() {
+		long now = System.nanoTime();
+		if(now - lastIdleTaskNanos < IDLE_TASK_INTERVAL_NANOS) {
+			return;
+		}
+		lastIdleTaskNanos = now;
+		try {
+			idleTask.run();
+		} catch(RuntimeException e) {
+			// Don't let it kill the drain thread
+			PrintLevel.ERROR.print("[Logger] idle task failed: " + e);
+		}
+	}
+
+	/**
+	 * Print everything queued so far on the calling thread.
+	 */
+	void flush() {
+		while(take(true)) {
+			// keep going
+		}
+		reportDroppedMessages();
+	}
+
+	void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	long getDroppedMessageCount() {
+		return droppedMessages.get();
+	}
+
+	int getCapacity() {
+		return mask + 1;
+	}
+}
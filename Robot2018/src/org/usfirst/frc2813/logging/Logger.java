@@ -1,6 +1,18 @@
 package org.usfirst.frc2813.logging;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 import org.usfirst.frc2813.util.Formatter;
 
@@ -11,15 +23,263 @@ import org.usfirst.frc2813.util.Formatter;
  */
 public class Logger {
 	private static LogLevel loggingLevel = LogLevel.INFO;
-	private static ArrayList<String> knownClasses = new ArrayList<String>();
-	public static void setLoggingLevel(LogLevel level) {
+	/**
+	 * Classes named in the caller attribution when {@link LogLevel#showTrace} is on.
+	 * Registered by {@link #forClass(Class)} and {@link #addMe()}.
+	 */
+	private static final Set<String> knownClasses = ConcurrentHashMap.newKeySet();
+	/**
+	 * One {@link ClassLogger} per class, handed out by {@link #forClass(Class)}
+	 */
+	private static final Map<String, ClassLogger> classLoggers = new ConcurrentHashMap<String, ClassLogger>();
+	/**
+	 * One {@link ClassLogger} per channel, handed out by {@link #forChannel(String)}.  Kept apart from
+	 * {@link #classLoggers} because these have no prefix, even when the channel is named after a class.
+	 */
+	private static final Map<String, ClassLogger> channelLoggers = new ConcurrentHashMap<String, ClassLogger>();
+	/**
+	 * Channel names, indexed by channel id.  Channel 0 is the one used by the static print functions.
+	 */
+	private static final List<String> channels = new ArrayList<String>();
+	/**
+	 * Levels set for channels, or for every channel starting with "name."
+	 */
+	private static Map<String, LogLevel> channelLevels = new HashMap<String, LogLevel>();
+	private static final int LOG_TYPES = LogType.values().length;
+	/**
+	 * Whether each channel prints each {@link LogType}, at [channel id * LOG_TYPES + LogType ordinal].
+	 * Replaced whenever a level changes, so checking a level is a single array lookup.
+	 */
+	private static volatile boolean[] enabled = new boolean[0];
+	/**
+	 * Where the robot finds channel levels.  Deployed from src/main/deploy/logging.properties.
+	 */
+	public static final String LEVELS_FILE = "/home/lvuser/deploy/logging.properties";
+	/**
+	 * Key for the level of the static print functions, and of channels nothing else matches
+	 */
+	public static final String DEFAULT_CHANNEL = "default";
+	/**
+	 * How often {@link #reloadLevelsIfChanged()} looks at {@link #LEVELS_FILE}
+	 */
+	private static final long LEVELS_FILE_CHECK_INTERVAL = 1000;
+	private static long levelsFileLastChecked = 0;
+	private static long levelsFileLastModified = 0;
+	/**
+	 * Shared {@link LogLimiter}s handed out by {@link #limiter(String, LogType)}
+	 */
+	private static final Map<String, LogLimiter> limiters = new ConcurrentHashMap<String, LogLimiter>();
+	/**
+	 * Every {@link LogLimiter}, so their summaries are printed even if nothing is logged after a burst
+	 */
+	private static final List<LogLimiter> allLimiters = new CopyOnWriteArrayList<LogLimiter>();
+	/**
+	 * Messages a keyed {@link LogLimiter} lets through at once
+	 */
+	public static final int DEFAULT_LIMITER_BURST = 3;
+	/**
+	 * Time for a keyed {@link LogLimiter} to earn another message
+	 */
+	public static final long DEFAULT_LIMITER_INTERVAL_MILLIS = 5000;
+	/**
+	 * Number of messages that can be waiting for the console.  Must be a power of two.
+	 */
+	private static final int CONSOLE_BUFFER_CAPACITY = 1024;
+	/**
+	 * Messages are formatted on the calling thread, but printed by a background thread
+	 * so a slow console never stalls the scheduler loop or a PID callback.
+	 */
+	private static final LogRingBuffer console = new LogRingBuffer(CONSOLE_BUFFER_CAPACITY, Logger::reportSuppressedMessages);
+	static {
+		registerChannel(DEFAULT_CHANNEL);
+	}
+
+	/**
+	 * Set the level of the static print functions, and of every channel that doesn't have its own
+	 * @param level the new {@link LogLevel}
+	 */
+	public static synchronized void setLoggingLevel(LogLevel level) {
 		loggingLevel = level;
+		updateEnabled();
 	}
 
 	public static LogLevel getLoggingLevel() {
 		return loggingLevel;
 	}
 
+	/**
+	 * Check before building an expensive message by hand.  The fixed-arity and
+	 * {@link Supplier} versions of the print functions already do this for you.
+	 * @param severity the {@link LogType} you are about to log at
+	 * @return true if a message of that severity would be printed
+	 */
+	public static boolean isEnabled(LogType severity) {
+		return enabled[severity.ordinal()];
+	}
+
+	/**
+	 * Level check for {@link ClassLogger}
+	 * @param channelOffset channel id * number of {@link LogType}s
+	 */
+	static boolean isEnabled(int channelOffset, LogType severity) {
+		return enabled[channelOffset + severity.ordinal()];
+	}
+
+	/**
+	 * Set the level of a channel, and of every channel under it.  For example "org.usfirst.frc2813.Robot2018.motor"
+	 * covers every class in the motor package and its subpackages.  The longest match wins.
+	 * @param channel channel name or prefix, or {@link #DEFAULT_CHANNEL}
+	 * @param level the new {@link LogLevel}, or null to go back to inheriting it
+	 */
+	public static synchronized void setChannelLevel(String channel, LogLevel level) {
+		if (channel.equals(DEFAULT_CHANNEL)) {
+			setLoggingLevel(level == null ? LogLevel.INFO : level);
+			return;
+		}
+		Map<String, LogLevel> levels = new HashMap<String, LogLevel>(channelLevels);
+		if (level == null) {
+			levels.remove(channel);
+		} else {
+			levels.put(channel, level);
+		}
+		channelLevels = levels;
+		updateEnabled();
+	}
+
+	/**
+	 * Replace every channel level with the ones in a properties file, e.g.
+	 * <pre>
+	 * default=INFO
+	 * org.usfirst.frc2813.Robot2018.motor=DEBUG
+	 * </pre>
+	 * Values are {@link LogLevel} names.  Channels the file doesn't mention go back to inheriting their level.
+	 * 
+	 * @param file
+	 *            - the properties file
+	 * @throws IOException
+	 *             if the file can't be read
+	 */
+	public static synchronized void loadLevels(File file) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			properties.load(in);
+		}
+		Map<String, LogLevel> levels = new HashMap<String, LogLevel>();
+		LogLevel defaultLevel = LogLevel.INFO;
+		for (String channel : properties.stringPropertyNames()) {
+			String value = properties.getProperty(channel).trim();
+			LogLevel level;
+			try {
+				level = LogLevel.valueOf(value.toUpperCase());
+			} catch (IllegalArgumentException e) {
+				warning("Ignoring unknown log level ", value, " for ", channel, " in ", file);
+				continue;
+			}
+			if (channel.equals(DEFAULT_CHANNEL)) {
+				defaultLevel = level;
+			} else {
+				levels.put(channel, level);
+			}
+		}
+		channelLevels = levels;
+		setLoggingLevel(defaultLevel);
+		info("Loaded ", levels.size() + 1, " log levels from ", file);
+	}
+
+	/**
+	 * Load {@link #LEVELS_FILE} if it was changed since it was last loaded.  Cheap enough to call
+	 * every periodic, it looks at the file at most once a second.
+	 */
+	public static synchronized void reloadLevelsIfChanged() {
+		long now = System.currentTimeMillis();
+		if (now - levelsFileLastChecked < LEVELS_FILE_CHECK_INTERVAL) {
+			return;
+		}
+		levelsFileLastChecked = now;
+		File file = new File(LEVELS_FILE);
+		long lastModified = file.lastModified(); // zero if it doesn't exist
+		if (lastModified == levelsFileLastModified) {
+			return;
+		}
+		levelsFileLastModified = lastModified;
+		if (lastModified == 0) {
+			return;
+		}
+		try {
+			loadLevels(file);
+		} catch (IOException e) {
+			error("Could not load log levels from ", file, ": ", e);
+		}
+	}
+
+	/**
+	 * @return the id of a new channel
+	 */
+	private static synchronized int registerChannel(String name) {
+		channels.add(name);
+		updateEnabled();
+		return channels.size() - 1;
+	}
+
+	/**
+	 * Rebuild the table behind {@link #isEnabled(int, LogType)} after a level changed or a channel was added
+	 */
+	private static void updateEnabled() {
+		boolean[] table = new boolean[channels.size() * LOG_TYPES];
+		for (int id = 0; id < channels.size(); id++) {
+			LogLevel level = id == 0 ? loggingLevel : getChannelLevel(channels.get(id));
+			for (LogType severity : LogType.values()) {
+				table[id * LOG_TYPES + severity.ordinal()] = level.isIncluded(severity);
+			}
+		}
+		enabled = table;
+	}
+
+	/**
+	 * @return the level of the longest configured prefix of a channel, or the default level
+	 */
+	private static LogLevel getChannelLevel(String channel) {
+		String prefix = channel;
+		while (true) {
+			LogLevel level = channelLevels.get(prefix);
+			if (level != null) {
+				return level;
+			}
+			int dot = prefix.lastIndexOf('.');
+			if (dot < 0) {
+				return loggingLevel;
+			}
+			prefix = prefix.substring(0, dot);
+		}
+	}
+
+	/**
+	 * Choose what happens to new messages when the console can't keep up
+	 * @param policy the new {@link OverflowPolicy}
+	 */
+	public static void setOverflowPolicy(OverflowPolicy policy) {
+		console.setOverflowPolicy(policy);
+	}
+
+	public static OverflowPolicy getOverflowPolicy() {
+		return console.getOverflowPolicy();
+	}
+
+	/**
+	 * @return the number of messages thrown away because the console couldn't keep up
+	 */
+	public static long getDroppedMessageCount() {
+		return console.getDroppedMessageCount();
+	}
+
+	/**
+	 * Print everything that is still queued, on the calling thread.  Messages are otherwise
+	 * printed a few milliseconds after they are logged.
+	 */
+	public static void flush() {
+		console.flush();
+	}
+
 	/**
 	 * the code<br>
 	 * <code>
@@ -48,35 +308,103 @@ public class Logger {
 	 * @author Adrian Guerra
 	 */
 	public static void print(LogType severity, Object... objects) {
-		if (!loggingLevel.isIncluded(severity)) {
-			return;
-		}//TODO make cleaner
+		if (isEnabled(severity)) {
+			emit(null, severity, objects);
+		}
+	}
+
+	/**
+	 * Build and queue a message whose level has already been checked.  Shared with {@link ClassLogger}.
+	 * 
+	 * @param source
+	 *            - prefix naming the caller, or null if unknown
+	 */
+	static void emit(String source, LogType severity, Object... objects) {
 		StringBuilder finalPrint = new StringBuilder();
-		finalPrint.append(readableTime(System.currentTimeMillis()));
+		appendReadableTime(finalPrint, System.currentTimeMillis());
 		if (loggingLevel.showTrace) {
+			// Only walk the stack when someone asked for it, it's far too slow for the periodic path
 			StackTraceElement[] trace = Thread.currentThread().getStackTrace();
-			System.out.println(Formatter.concat((Object[]) trace));// TODO remove getStackTrace() from trace
-		} else {
-			StackTraceElement[] trace = Thread.currentThread().getStackTrace();
-			for (int i = trace.length - 1; i > 0; i--) {
-				if (knownClasses.contains(trace[i].getClassName())) {
-					finalPrint.append(simplifyPackage(trace[i].getClassName()));
-					finalPrint.append(' ');
+			console.offer(PrintLevel.DEFAULT, Formatter.concat((Object[]) trace));// TODO remove getStackTrace() from trace
+			if (source == null) {
+				for (int i = trace.length - 1; i > 0; i--) {
+					if (knownClasses.contains(trace[i].getClassName())) {
+						finalPrint.append(simplifyPackage(trace[i].getClassName()));
+						finalPrint.append(' ');
+					}
 				}
 			}
 		}
-		if (loggingLevel.isIncluded(severity)) {
-			if (objects.length == 0) {
-				finalPrint.append("Nothing to log");
-			} else {
-				for(Object o : objects) finalPrint.append(o.toString());
-			}
-            if (finalPrint.length() == 0) {
-                System.out.println("We got an empty trace string that we're about to print to the console. That's a bug.");
-                (new Throwable()).printStackTrace();
-                return;
-            }
-            severity.level.print(finalPrint.toString());
+		if (source != null) {
+			finalPrint.append(source);
+			finalPrint.append(' ');
+		}
+		if (objects.length == 0) {
+			finalPrint.append("Nothing to log");
+		} else {
+			for(Object o : objects) finalPrint.append(o);
+		}
+		console.offer(severity.level, finalPrint.toString());
+	}
+
+	/*
+	 * Fixed-arity versions of print(LogType, Object...).  When the level is filtered out
+	 * these return before anything is allocated: no varargs array, no boxing, no strings.
+	 */
+
+	public static void print(LogType severity, Object a) {
+		if (isEnabled(severity)) {
+			emit(null, severity, a);
+		}
+	}
+
+	public static void print(LogType severity, Object a, Object b) {
+		if (isEnabled(severity)) {
+			emit(null, severity, a, b);
+		}
+	}
+
+	public static void print(LogType severity, Object a, Object b, Object c) {
+		if (isEnabled(severity)) {
+			emit(null, severity, a, b, c);
+		}
+	}
+
+	public static void print(LogType severity, Object a, Object b, Object c, Object d) {
+		if (isEnabled(severity)) {
+			emit(null, severity, a, b, c, d);
+		}
+	}
+
+	public static void print(LogType severity, String label, double value) {
+		if (isEnabled(severity)) {
+			emit(null, severity, label, value);
+		}
+	}
+
+	public static void print(LogType severity, String label, long value) {
+		if (isEnabled(severity)) {
+			emit(null, severity, label, value);
+		}
+	}
+
+	/**
+	 * Lazy version of {@link #print(LogType, Object...)}.  The message is only built if it will be printed.
+	 * <code>
+	 * Logger.print(LogType.DEBUG, () -> "Diagnostics: " + getDiagnostics());
+	 * </code>
+	 * Pass a lambda that doesn't capture anything, or keep the {@link Supplier} in a field,
+	 * if the call site must not allocate.
+	 * 
+	 * @param severity
+	 *            - {@link LogType} object used along with {@link LogLevel} to
+	 *            determie what should be printed
+	 * @param message
+	 *            - called to produce the message, only if it will be printed
+	 */
+	public static void print(LogType severity, Supplier<?> message) {
+		if (isEnabled(severity)) {
+			emit(null, severity, message.get());
 		}
 	}
 
@@ -96,18 +424,42 @@ public class Logger {
 	 * @see Logger#print(LogType, Object...)
 	 */
 	public static void printFormat(LogType severity, String format, Object... objects) {
-		if (!loggingLevel.isIncluded(severity)) {
-			return;
-		}//TODO make cleaner
-		String formatted = Formatter.safeFormat(format, objects);
-		print(severity, formatted);
+		if (isEnabled(severity)) {
+			emit(null, severity, Formatter.safeFormat(format, objects));
+		}
+	}
+
+	/*
+	 * Fixed-arity versions of printFormat(LogType, String, Object...), which neither format
+	 * nor allocate when the level is filtered out.
+	 */
+
+	public static void printFormat(LogType severity, String format, Object a) {
+		if (isEnabled(severity)) {
+			emit(null, severity, Formatter.safeFormat(format, a));
+		}
+	}
+
+	public static void printFormat(LogType severity, String format, Object a, Object b) {
+		if (isEnabled(severity)) {
+			emit(null, severity, Formatter.safeFormat(format, a, b));
+		}
+	}
+
+	public static void printFormat(LogType severity, String format, Object a, Object b, Object c) {
+		if (isEnabled(severity)) {
+			emit(null, severity, Formatter.safeFormat(format, a, b, c));
+		}
 	}
 
 	//TODO jaavdoc
 	public static void printLabelled(LogType severity,String title,Object...objects) {
-		if (!loggingLevel.isIncluded(severity)) {
-			return;
-		}//TODO make cleaner
+		if (isEnabled(severity)) {
+			emitLabelled(null, severity, title, objects);
+		}
+	}
+
+	static void emitLabelled(String source, LogType severity,String title,Object...objects) {
 		StringBuilder finalPrint = new StringBuilder();
 		finalPrint.append(title).append(": ");
 		for(int i=0;i<objects.length;i++) {
@@ -119,14 +471,105 @@ public class Logger {
 				finalPrint.append(i+1==objects.length?"":", ");//put comma after pair if not on the last pair
 			}
 		}
-		print(severity,finalPrint);
+		emit(source,severity,finalPrint);
 	}
 	
 	
+	/**
+	 * <p>
+	 * Get the logger for a class.  Messages logged through it are prefixed with the
+	 * class name, without having to inspect the stack on every call.  Its level is the
+	 * level of the channel with the fully qualified class name.  Get it once and keep it:
+	 * </p>
+	 * <code>
+	 * private static final ClassLogger log = Logger.forClass(Motor.class);
+	 * </code>
+	 * 
+	 * @param c
+	 *            - the class doing the logging
+	 * @return the shared {@link ClassLogger} for that class
+	 */
+	public static ClassLogger forClass(Class<?> c) {
+		knownClasses.add(c.getName());
+		return getClassLogger(classLoggers, c.getName(), simplifyPackage(c.getName()));
+	}
+
+	/**
+	 * Get the logger for a named channel, such as "org.usfirst.frc2813.Robot2018.motor.calibration".
+	 * Messages are printed as they are, without a prefix.  A channel named after a class gets a different logger
+	 * from {@link #forClass(Class)}, with the same level.
+	 * 
+	 * @param channel
+	 *            - the channel name, dotted like a package so a level can cover several channels
+	 * @return the shared {@link ClassLogger} for that channel
+	 * @see #setChannelLevel(String, LogLevel)
+	 */
+	public static ClassLogger forChannel(String channel) {
+		return getClassLogger(channelLoggers, channel, null);
+	}
+
+	private static ClassLogger getClassLogger(Map<String, ClassLogger> loggers, String channel, String source) {
+		ClassLogger classLogger = loggers.get(channel);
+		if (classLogger == null) {
+			synchronized (Logger.class) {
+				classLogger = loggers.get(channel);
+				if (classLogger == null) {
+					classLogger = new ClassLogger(channel, source, registerChannel(channel) * LOG_TYPES);
+					loggers.put(channel, classLogger);
+				}
+			}
+		}
+		return classLogger;
+	}
+
+	/**
+	 * Get the {@link LogLimiter} shared by every site logging about the same thing.  The first call
+	 * for a key creates it with {@link #DEFAULT_LIMITER_BURST} and {@link #DEFAULT_LIMITER_INTERVAL_MILLIS}.
+	 * Get it once and keep it.
+	 * 
+	 * @param key
+	 *            - what the messages are about, also used in the summary
+	 * @param severity
+	 *            - {@link LogType} of the "suppressed N times" summary
+	 * @return the shared {@link LogLimiter} for that key
+	 */
+	public static LogLimiter limiter(String key, LogType severity) {
+		LogLimiter limiter = limiters.get(key);
+		if (limiter == null) {
+			limiter = new LogLimiter(key, severity, DEFAULT_LIMITER_BURST, DEFAULT_LIMITER_INTERVAL_MILLIS);
+			LogLimiter existing = limiters.putIfAbsent(key, limiter);
+			if (existing != null) {
+				limiter = existing;
+			}
+		}
+		return limiter;
+	}
+
+	/**
+	 * Called by each {@link LogLimiter} when it's created
+	 */
+	static void registerLimiter(LogLimiter limiter) {
+		allLimiters.add(limiter);
+	}
+
+	/**
+	 * Print the summary of every {@link LogLimiter} whose messages have stopped.  Runs on the console's drain thread.
+	 */
+	private static void reportSuppressedMessages() {
+		long now = System.nanoTime();
+		for (LogLimiter limiter : allLimiters) {
+			limiter.reportIfQuiet(now);
+		}
+	}
+
 	/**
 	 * <p>
 	 * Add yourself to {@link Logger}'s list of known classes
 	 * </p>
+	 * <p>
+	 * Known classes are only reported when {@link LogLevel#showTrace} is on.
+	 * Prefer {@link #forClass(Class)}, this is kept for compatibility.
+	 * </p>
 	 */
 	public static void addMe() {
 		StackTraceElement[] trace = Thread.currentThread().getStackTrace();
@@ -163,6 +606,37 @@ public class Logger {
 		print(LogType.ALWAYS, objects);
 	}
 
+	public static void always(Object a) {
+		print(LogType.ALWAYS, a);
+	}
+
+	public static void always(Object a, Object b) {
+		print(LogType.ALWAYS, a, b);
+	}
+
+	public static void always(Object a, Object b, Object c) {
+		print(LogType.ALWAYS, a, b, c);
+	}
+
+	public static void always(Object a, Object b, Object c, Object d) {
+		print(LogType.ALWAYS, a, b, c, d);
+	}
+
+	public static void always(String label, double value) {
+		print(LogType.ALWAYS, label, value);
+	}
+
+	public static void always(String label, long value) {
+		print(LogType.ALWAYS, label, value);
+	}
+
+	/**
+	 * @see #print(LogType, Supplier)
+	 */
+	public static void always(Supplier<?> message) {
+		print(LogType.ALWAYS, message);
+	}
+
 	/**
 	 * Version of {@link #print(LogType, Object...)} with a {@link LogType} of
 	 * {@link LogType#DEBUG DEBUG}
@@ -174,6 +648,37 @@ public class Logger {
 		print(LogType.DEBUG, objects);
 	}
 
+	public static void debug(Object a) {
+		print(LogType.DEBUG, a);
+	}
+
+	public static void debug(Object a, Object b) {
+		print(LogType.DEBUG, a, b);
+	}
+
+	public static void debug(Object a, Object b, Object c) {
+		print(LogType.DEBUG, a, b, c);
+	}
+
+	public static void debug(Object a, Object b, Object c, Object d) {
+		print(LogType.DEBUG, a, b, c, d);
+	}
+
+	public static void debug(String label, double value) {
+		print(LogType.DEBUG, label, value);
+	}
+
+	public static void debug(String label, long value) {
+		print(LogType.DEBUG, label, value);
+	}
+
+	/**
+	 * @see #print(LogType, Supplier)
+	 */
+	public static void debug(Supplier<?> message) {
+		print(LogType.DEBUG, message);
+	}
+
 	/**
 	 * Version of {@link #print(LogType, Object...)} with a {@link LogType} of
 	 * {@link LogType#INFO INFO}
@@ -185,6 +690,37 @@ public class Logger {
 		print(LogType.INFO, objects);
 	}
 
+	public static void info(Object a) {
+		print(LogType.INFO, a);
+	}
+
+	public static void info(Object a, Object b) {
+		print(LogType.INFO, a, b);
+	}
+
+	public static void info(Object a, Object b, Object c) {
+		print(LogType.INFO, a, b, c);
+	}
+
+	public static void info(Object a, Object b, Object c, Object d) {
+		print(LogType.INFO, a, b, c, d);
+	}
+
+	public static void info(String label, double value) {
+		print(LogType.INFO, label, value);
+	}
+
+	public static void info(String label, long value) {
+		print(LogType.INFO, label, value);
+	}
+
+	/**
+	 * @see #print(LogType, Supplier)
+	 */
+	public static void info(Supplier<?> message) {
+		print(LogType.INFO, message);
+	}
+
 	/**
 	 * Version of {@link #print(LogType, Object...)} with a {@link LogType} of
 	 * {@link LogType#WARNING WARNING}
@@ -196,6 +732,37 @@ public class Logger {
 		print(LogType.WARNING, objects);
 	}
 
+	public static void warning(Object a) {
+		print(LogType.WARNING, a);
+	}
+
+	public static void warning(Object a, Object b) {
+		print(LogType.WARNING, a, b);
+	}
+
+	public static void warning(Object a, Object b, Object c) {
+		print(LogType.WARNING, a, b, c);
+	}
+
+	public static void warning(Object a, Object b, Object c, Object d) {
+		print(LogType.WARNING, a, b, c, d);
+	}
+
+	public static void warning(String label, double value) {
+		print(LogType.WARNING, label, value);
+	}
+
+	public static void warning(String label, long value) {
+		print(LogType.WARNING, label, value);
+	}
+
+	/**
+	 * @see #print(LogType, Supplier)
+	 */
+	public static void warning(Supplier<?> message) {
+		print(LogType.WARNING, message);
+	}
+
 	/**
 	 * Version of {@link #print(LogType, Object...)} with a {@link LogType} of
 	 * {@link LogType#ERROR ERROR}
@@ -206,6 +773,37 @@ public class Logger {
 	public static void error(Object... objects) {
 		print(LogType.ERROR, objects);
 	}
+
+	public static void error(Object a) {
+		print(LogType.ERROR, a);
+	}
+
+	public static void error(Object a, Object b) {
+		print(LogType.ERROR, a, b);
+	}
+
+	public static void error(Object a, Object b, Object c) {
+		print(LogType.ERROR, a, b, c);
+	}
+
+	public static void error(Object a, Object b, Object c, Object d) {
+		print(LogType.ERROR, a, b, c, d);
+	}
+
+	public static void error(String label, double value) {
+		print(LogType.ERROR, label, value);
+	}
+
+	public static void error(String label, long value) {
+		print(LogType.ERROR, label, value);
+	}
+
+	/**
+	 * @see #print(LogType, Supplier)
+	 */
+	public static void error(Supplier<?> message) {
+		print(LogType.ERROR, message);
+	}
 	
 	/**
 	 * Converts {@link System#currentTimeMillis()} to easily readable format
@@ -214,9 +812,30 @@ public class Logger {
 	 * @return {@code [minutes:seconds:milliseconds]}
 	 */
 	public static String readableTime(long ms) {
-		short milliseconds = (short) (ms%1000);
-		short seconds = (short) ((ms/1000)%60);
-		short minutes = (short) ((ms/60000)%60);
-		return Formatter.safeFormat("[%02d:%02d:%03d]",minutes,seconds,milliseconds);
+		StringBuilder readable = new StringBuilder(11);
+		appendReadableTime(readable, ms);
+		return readable.toString();
+	}
+
+	/**
+	 * Same as {@link #readableTime(long)}, without the trip through String.format
+	 */
+	private static void appendReadableTime(StringBuilder sb, long ms) {
+		int milliseconds = (int) (ms%1000);
+		int seconds = (int) ((ms/1000)%60);
+		int minutes = (int) ((ms/60000)%60);
+		sb.append('[');
+		appendDigits(sb, minutes, 2);
+		sb.append(':');
+		appendDigits(sb, seconds, 2);
+		sb.append(':');
+		appendDigits(sb, milliseconds, 3);
+		sb.append(']');
+	}
+
+	private static void appendDigits(StringBuilder sb, int value, int width) {
+		for (int divisor = (width == 3 ? 100 : 10); divisor > 0; divisor /= 10) {
+			sb.append((char) ('0' + (value / divisor) % 10));
+		}
 	}
 }
@@ -0,0 +1,359 @@
+package org.usfirst.frc2813.units;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.usfirst.frc2813.units.uom.LengthUOM;
+import org.usfirst.frc2813.units.uom.RateUOM;
+import org.usfirst.frc2813.units.uom.TimeUOM;
+import org.usfirst.frc2813.units.uom.UOM;
+import org.usfirst.frc2813.units.values.Length;
+import org.usfirst.frc2813.units.values.Rate;
+import org.usfirst.frc2813.units.values.Time;
+import org.usfirst.frc2813.units.values.Value;
+
+/**
+ * Parses values with units, like "27in", "22 in/s", "1.5 seconds" or "130 arm-degrees", for autonomous scripts
+ * and configuration files.
+ *
+ * The unit is looked up among every unit of measure in the UOM registry: first by abbreviation, which is case
+ * sensitive, then by singular or plural name, which ignores case, '-', '_' and spaces, so "ArmDegrees" finds
+ * "arm-degrees".  A rate that isn't found is split at the '/' and looked up as a length and a time, so "in/s" is
+ * inches per second.  Units that more than one configuration defines, like "p" for encoder pulses, can't be
+ * parsed by that name.
+ *
+ * The units are compiled into tries when the parser is created, so matching a unit doesn't create any strings,
+ * and values are immutable, so each distinct literal is only parsed once and the same value is returned after that.
+ * Parsers are thread safe.
+ */
+@SuppressWarnings("rawtypes")
+public final class UnitParser {
+	// Stop remembering literals after this many for one default unit, so a runaway script can't use up the memory
+	private static final int MAX_CACHED_LITERALS = 10000;
+	// Short forms that aren't any unit's abbreviation
+	private static final String[][] TIME_ALIASES = { { "s", "sec" } };
+
+	private static volatile UnitParser defaultParser;
+
+	static {
+		// Loading each kind of unit creates its built-in units, which must exist before the first parser reads the registry
+		@SuppressWarnings("unused")
+		UOM unit = LengthUOM.CanonicalLengthUOM;
+		unit = TimeUOM.CanonicalTimeUOM;
+		unit = RateUOM.CanonicalRateUOMForMovement;
+	}
+
+	// The registry snapshot this parser was built from
+	private final List<UOM> units;
+	private final TrieNode abbreviations = new TrieNode();
+	private final TrieNode names = new TrieNode();
+	// Rates by length and time unit id, for units written as length/time
+	private final Map<Long,List<UOM>> ratesByParts = new HashMap<Long,List<UOM>>();
+	// Values by literal, for literals parsed without a default unit
+	private final Map<String,Value> literals = new ConcurrentHashMap<String,Value>();
+	// Values by literal, for each default unit, so the cache key is the literal itself
+	private final Map<UOM,Map<String,Value>> literalsByDefaultUOM = new ConcurrentHashMap<UOM,Map<String,Value>>();
+
+	/**
+	 * Build a parser for the units of measure that exist now.  Use {@link #getDefault()} unless units are being created concurrently.
+	 */
+	public UnitParser() {
+		this.units = UOM.getUnitsOfMeasure();
+		for(UOM uom : units) {
+			abbreviations.add(uom.getUnitNameAbbreviation(), false, uom);
+			names.add(uom.getUnitNameSingular(), true, uom);
+			names.add(uom.getUnitNamePlural(), true, uom);
+			if(uom instanceof RateUOM) {
+				RateUOM rate = (RateUOM)uom;
+				Long key = getRateKey(rate.getLengthUOM(), rate.getTimeUOM());
+				List<UOM> rates = ratesByParts.get(key);
+				if(rates == null) {
+					ratesByParts.put(key, rates = new ArrayList<UOM>(1));
+				}
+				rates.add(uom);
+			}
+		}
+		for(String[] alias : TIME_ALIASES) {
+			UOM uom = find(abbreviations, alias[1], 0, alias[1].length(), false);
+			if(uom != null && find(abbreviations, alias[0], 0, alias[0].length(), false) == null) {
+				abbreviations.add(alias[0], false, uom);
+			}
+		}
+	}
+
+	/**
+	 * @return a parser for every unit of measure created so far.  It's rebuilt when more units are created, until the registry is sealed.
+	 */
+	public static UnitParser getDefault() {
+		UnitParser parser = defaultParser;
+		if(parser == null || parser.units != UOM.getUnitsOfMeasure()) {
+			defaultParser = parser = new UnitParser();
+		}
+		return parser;
+	}
+
+	/* ---------------------------------------------------------------------------------------------------------------
+	 * Parsing
+	 * --------------------------------------------------------------------------------------------------------------- */
+
+	/**
+	 * Parse a number followed by a unit
+	 * @throws IllegalArgumentException if there's no number, no unit, or the unit isn't known
+	 */
+	public Value parse(String literal) {
+		return parse(literal, null);
+	}
+
+	/**
+	 * Parse a number followed by a unit, or just a number in the default unit
+	 * @param defaultUOM the unit when there isn't one, or null if it's required
+	 * @throws IllegalArgumentException if there's no number, the unit isn't known, or there's no unit and no default
+	 */
+	public Value parse(String literal, UOM defaultUOM) {
+		Map<String,Value> cache = defaultUOM == null
+				? literals
+				: literalsByDefaultUOM.computeIfAbsent(defaultUOM, uom -> new ConcurrentHashMap<String,Value>());
+		Value value = cache.get(literal);
+		if(value == null) {
+			value = parseUncached(literal, defaultUOM);
+			if(cache.size() >= MAX_CACHED_LITERALS) {
+				cache.clear();
+			}
+			cache.put(literal, value);
+		}
+		return value;
+	}
+
+	public Length parseLength(String literal) {
+		return parseLength(literal, null);
+	}
+
+	public Length parseLength(String literal, LengthUOM defaultUOM) {
+		return (Length)parse(literal, defaultUOM, Length.class, SystemOfMeasurement.Length);
+	}
+
+	public Rate parseRate(String literal) {
+		return parseRate(literal, null);
+	}
+
+	public Rate parseRate(String literal, RateUOM defaultUOM) {
+		return (Rate)parse(literal, defaultUOM, Rate.class, SystemOfMeasurement.Rate);
+	}
+
+	public Time parseTime(String literal) {
+		return parseTime(literal, null);
+	}
+
+	public Time parseTime(String literal, TimeUOM defaultUOM) {
+		return (Time)parse(literal, defaultUOM, Time.class, SystemOfMeasurement.Time);
+	}
+
+	private Value parse(String literal, UOM defaultUOM, Class<? extends Value> type, SystemOfMeasurement system) {
+		Value value = parse(literal, defaultUOM);
+		if(!type.isInstance(value)) {
+			throw new IllegalArgumentException("Expected a " + system + " but '" + literal + "' is in " + value.getUOM() + ".");
+		}
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Value parseUncached(String literal, UOM defaultUOM) {
+		int end = literal.length();
+		while(end > 0 && Character.isWhitespace(literal.charAt(end - 1))) {
+			end--;
+		}
+		int start = 0;
+		while(start < end && Character.isWhitespace(literal.charAt(start))) {
+			start++;
+		}
+		int numberEnd = getNumberEnd(literal, start, end);
+		if(numberEnd == start) {
+			throw new IllegalArgumentException("Expected a number at the start of '" + literal + "'.");
+		}
+		double number = Double.parseDouble(literal.substring(start, numberEnd));
+		int unitStart = numberEnd;
+		while(unitStart < end && Character.isWhitespace(literal.charAt(unitStart))) {
+			unitStart++;
+		}
+		UOM uom;
+		if(unitStart == end) {
+			if(defaultUOM == null) {
+				throw new IllegalArgumentException("Expected a unit of measure after the number in '" + literal + "'.");
+			}
+			uom = defaultUOM;
+		} else {
+			uom = findUnit(literal, unitStart, end);
+			if(uom == null) {
+				throw new IllegalArgumentException("Unknown unit of measure '" + literal.substring(unitStart, end) + "' in '" + literal + "'.");
+			}
+		}
+		return uom.create(number);
+	}
+
+	// Returns the end of the number starting at start: an optional sign, digits with an optional decimal point, and an optional exponent
+	private static int getNumberEnd(String s, int start, int end) {
+		int i = start;
+		if(i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+			i++;
+		}
+		int digits = 0;
+		while(i < end && (Character.isDigit(s.charAt(i)) || s.charAt(i) == '.')) {
+			i++;
+			digits++;
+		}
+		if(digits == 0) {
+			return start;
+		}
+		// An 'e' is only an exponent if digits follow, otherwise it's the start of the unit
+		if(i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+			int exponent = i + 1;
+			if(exponent < end && (s.charAt(exponent) == '-' || s.charAt(exponent) == '+')) {
+				exponent++;
+			}
+			if(exponent < end && Character.isDigit(s.charAt(exponent))) {
+				i = exponent;
+				while(i < end && Character.isDigit(s.charAt(i))) {
+					i++;
+				}
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * @return the unit of measure for s[start, end), or null if there isn't one
+	 * @throws IllegalArgumentException if more than one unit has that name
+	 */
+	private UOM findUnit(String s, int start, int end) {
+		UOM uom = findAbbreviationOrName(s, start, end);
+		if(uom != null) {
+			return uom;
+		}
+		int slash = s.indexOf('/', start);
+		if(slash < 0 || slash >= end) {
+			return null;
+		}
+		UOM length = findAbbreviationOrName(s, start, trimEnd(s, start, slash));
+		UOM time = findAbbreviationOrName(s, trimStart(s, slash + 1, end), end);
+		if(!(length instanceof LengthUOM) || !(time instanceof TimeUOM)) {
+			return null;
+		}
+		return unique(ratesByParts.get(getRateKey((LengthUOM)length, (TimeUOM)time)), s, start, end);
+	}
+
+	private UOM findAbbreviationOrName(String s, int start, int end) {
+		UOM uom = find(abbreviations, s, start, end, false);
+		return uom != null ? uom : find(names, s, start, end, true);
+	}
+
+	private static UOM find(TrieNode root, String s, int start, int end, boolean normalize) {
+		TrieNode node = root;
+		for(int i = start; i < end && node != null; i++) {
+			char c = s.charAt(i);
+			if(normalize) {
+				if(TrieNode.isIgnoredInNames(c)) {
+					continue;
+				}
+				c = Character.toLowerCase(c);
+			}
+			node = node.getChild(c);
+		}
+		return node == null ? null : unique(node.units, s, start, end);
+	}
+
+	// Returns the only unit in the list, or null if there isn't one.  s[start, end) is the name, for the error.
+	private static UOM unique(List<UOM> units, String s, int start, int end) {
+		if(units == null) {
+			return null;
+		}
+		if(units.size() > 1) {
+			throw new IllegalArgumentException("More than one unit of measure is called '" + s.substring(start, end) + "': " + units + ".");
+		}
+		return units.get(0);
+	}
+
+	private static int trimEnd(String s, int start, int end) {
+		while(end > start && Character.isWhitespace(s.charAt(end - 1))) {
+			end--;
+		}
+		return end;
+	}
+
+	private static int trimStart(String s, int start, int end) {
+		while(start < end && Character.isWhitespace(s.charAt(start))) {
+			start++;
+		}
+		return start;
+	}
+
+	private static Long getRateKey(LengthUOM length, TimeUOM time) {
+		return ((long)length.getId() << 32) | time.getId();
+	}
+
+	/* ---------------------------------------------------------------------------------------------------------------
+	 * Trie
+	 * --------------------------------------------------------------------------------------------------------------- */
+
+	/*
+	 * A node of a trie of unit names.  Children are kept sorted by character, for a binary search.
+	 */
+	private static final class TrieNode {
+		private char[] chars = new char[0];
+		private TrieNode[] children = new TrieNode[0];
+		// The units whose name ends here, usually just one
+		private List<UOM> units;
+
+		static boolean isIgnoredInNames(char c) {
+			return c == '-' || c == '_' || Character.isWhitespace(c);
+		}
+
+		TrieNode getChild(char c) {
+			int i = Arrays.binarySearch(chars, c);
+			return i >= 0 ? children[i] : null;
+		}
+
+		void add(String name, boolean normalize, UOM uom) {
+			TrieNode node = this;
+			for(int i = 0; i < name.length(); i++) {
+				char c = name.charAt(i);
+				if(normalize) {
+					if(isIgnoredInNames(c)) {
+						continue;
+					}
+					c = Character.toLowerCase(c);
+				}
+				TrieNode child = node.getChild(c);
+				if(child == null) {
+					child = node.insertChild(c);
+				}
+				node = child;
+			}
+			if(node.units == null) {
+				node.units = new ArrayList<UOM>(1);
+			}
+			// A unit's singular and plural names can be the same
+			if(!node.units.contains(uom)) {
+				node.units.add(uom);
+			}
+		}
+
+		private TrieNode insertChild(char c) {
+			int at = -(Arrays.binarySearch(chars, c) + 1);
+			char[] newChars = new char[chars.length + 1];
+			TrieNode[] newChildren = new TrieNode[children.length + 1];
+			System.arraycopy(chars, 0, newChars, 0, at);
+			System.arraycopy(children, 0, newChildren, 0, at);
+			newChars[at] = c;
+			newChildren[at] = new TrieNode();
+			System.arraycopy(chars, at, newChars, at + 1, chars.length - at);
+			System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+			chars = newChars;
+			children = newChildren;
+			return newChildren[at];
+		}
+	}
+}
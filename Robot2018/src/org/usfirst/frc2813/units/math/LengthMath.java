@@ -0,0 +1,50 @@
+package org.usfirst.frc2813.units.math;
+
+import org.usfirst.frc2813.units.Direction;
+import org.usfirst.frc2813.units.uom.LengthUOM;
+
+/**
+ * Length arithmetic on plain doubles, for control loops that shouldn't create a Length for every intermediate result.
+ * The units travel alongside the numbers: each operand is a value and its unit of measure, and the result is in
+ * the unit of measure asked for.  Wrap the final answer with {@link LengthUOM#create(double)} if a Length is needed.
+ */
+public final class LengthMath {
+	private LengthMath() {
+	}
+	/**
+	 * Convert a value from one unit of measure to another
+	 */
+	public static double convert(double value, LengthUOM uom, LengthUOM resultUOM) {
+		return value * uom.getConversionFactorTo(resultUOM);
+	}
+	/**
+	 * a + b, in resultUOM
+	 */
+	public static double add(double a, LengthUOM aUOM, double b, LengthUOM bUOM, LengthUOM resultUOM) {
+		return convert(a, aUOM, resultUOM) + convert(b, bUOM, resultUOM);
+	}
+	/**
+	 * a - b, in resultUOM
+	 */
+	public static double subtract(double a, LengthUOM aUOM, double b, LengthUOM bUOM, LengthUOM resultUOM) {
+		return convert(a, aUOM, resultUOM) - convert(b, bUOM, resultUOM);
+	}
+	/**
+	 * Same as Length.isLimitExceeded, for a limit and position in the same units
+	 */
+	public static boolean isLimitExceeded(Direction direction, double limit, double position) {
+		return direction.isPositive() ? position > limit : position < limit;
+	}
+	/**
+	 * Same as Length.isLimitReached, for a limit and position in the same units
+	 */
+	public static boolean isLimitReached(Direction direction, double limit, double position) {
+		return direction.isPositive() ? position >= limit : position <= limit;
+	}
+	/**
+	 * Same as Length.clampToLimit, for a limit and position in the same units
+	 */
+	public static double clampToLimit(Direction direction, double limit, double position) {
+		return isLimitExceeded(direction, limit, position) ? limit : position;
+	}
+}
@@ -0,0 +1,32 @@
+package org.usfirst.frc2813.units.math;
+
+import org.usfirst.frc2813.units.uom.LengthUOM;
+import org.usfirst.frc2813.units.uom.RateUOM;
+import org.usfirst.frc2813.units.uom.TimeUOM;
+
+/**
+ * Rate arithmetic on plain doubles, the counterpart of {@link LengthMath}.
+ */
+public final class RateMath {
+	private RateMath() {
+	}
+	/**
+	 * Convert a value from one unit of measure to another
+	 */
+	public static double convert(double value, RateUOM uom, RateUOM resultUOM) {
+		return value * uom.getConversionFactorTo(resultUOM);
+	}
+	/**
+	 * a - b, in resultUOM
+	 */
+	public static double subtract(double a, RateUOM aUOM, double b, RateUOM bUOM, RateUOM resultUOM) {
+		return convert(a, aUOM, resultUOM) - convert(b, bUOM, resultUOM);
+	}
+	/**
+	 * Rate * Time = Distance, in resultUOM.  Same as Rate.getLength.
+	 */
+	public static double getLength(double rate, RateUOM rateUOM, double time, TimeUOM timeUOM, LengthUOM resultUOM) {
+		double timeInRateUnits = time * timeUOM.getConversionFactorTo(rateUOM.getTimeUOM());
+		return LengthMath.convert(rate * timeInRateUnits, rateUOM.getLengthUOM(), resultUOM);
+	}
+}
@@ -1,10 +1,7 @@
 package org.usfirst.frc2813.units.uom;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import org.usfirst.frc2813.units.SystemOfMeasurement;
 import org.usfirst.frc2813.units.values.Value;
@@ -24,8 +21,13 @@ public abstract class UOM<T_UOM extends UOM, T_UV extends Value> {
 	private final double canonicalUnitQuantity;
 	// System of measurement
 	private final SystemOfMeasurement systemOfMeasurement;
+	// Dense index of this unit, in the order units were registered
+	private final int id;
+	// This unit's row of the conversion table, once the registry is sealed
+	private ConversionFactors conversionFactors;
 	
-	public static Map<SystemOfMeasurement,List<UOM>> allUnits = new HashMap<SystemOfMeasurement,List<UOM>>();
+	// Every unit of measure, replaced as a whole when one is added.  See UOMRegistry.
+	private static volatile UOMRegistry registry = UOMRegistry.EMPTY;
 
 	/* ---------------------------------------------------------------------------------------------------------------
 	 * Constructors
@@ -39,7 +41,7 @@ public abstract class UOM<T_UOM extends UOM, T_UV extends Value> {
 		this.unitNamePlural = unitNamePlural;
 		this.unitNameAbbreviation = unitNameAbbreviation;
 		this.canonicalUnitQuantity = 1;
-		registerUnitOfMeasurement(this);
+		this.id = registerUnitOfMeasurement(this);
 	}
 	
 	// Construct a new unit of measure in terms of a canonical unit of measure, including an integral scaling factor.  i.e cm is 10 mm.
@@ -50,19 +52,81 @@ public abstract class UOM<T_UOM extends UOM, T_UV extends Value> {
 		this.unitNamePlural = unitNamePlural;
 		this.unitNameAbbreviation = unitNameAbbreviation;
 		this.canonicalUnitQuantity   = canonicalUnitQuantity;
-		registerUnitOfMeasurement(this);
+		this.id = registerUnitOfMeasurement(this);
 	}
 
 	/* ---------------------------------------------------------------------------------------------------------------
 	 * Registry of units of measure
 	 * --------------------------------------------------------------------------------------------------------------- */
 	
-	private static void registerUnitOfMeasurement(UOM uom) {
-		List<UOM> unitsOfSystem = allUnits.get(uom.getSystemOfMeasurement());
-		if(unitsOfSystem == null) {
-			allUnits.put(uom.getSystemOfMeasurement(), unitsOfSystem = new ArrayList<UOM>());
+	// Returns the id of the new unit.  Units are created in static initializers, which can run on any thread.
+	private static synchronized int registerUnitOfMeasurement(UOM uom) {
+		UOMRegistry current = registry;
+		if(current.isSealed()) {
+			throw new IllegalStateException("Unit of measure " + uom.getUnitNamePlural() + " was created after the units of measure were sealed.");
 		}
-		unitsOfSystem.add(uom);
+		registry = current.withUnit(uom);
+		return current.units.size();
+	}
+
+	/**
+	 * Stop accepting new units of measure and build the table of conversion factors between every pair of units,
+	 * so conversions are a single multiply.  Call once every unit has been created, i.e. after the subsystems
+	 * and their configurations.  Until then, conversions are calculated from the canonical unit quantities each time.
+	 * Calling it again does nothing.
+	 */
+	public static synchronized void seal() {
+		if(!registry.isSealed()) {
+			registry = registry.seal();
+			for(UOM uom : registry.units) {
+				uom.conversionFactors = new ConversionFactors(registry.conversionFactors[uom.id]);
+			}
+		}
+	}
+
+	/*
+	 * A row of the conversion table, kept on each unit so a conversion doesn't have to read the volatile registry.
+	 * The field is final, so any thread that sees the row sees every factor in it.
+	 */
+	private static final class ConversionFactors {
+		private final double[] factors;
+
+		ConversionFactors(double[] factors) {
+			this.factors = factors;
+		}
+	}
+
+	// Return true once no more units of measure can be created
+	public static boolean isSealed() {
+		return registry.isSealed();
+	}
+
+	// Get every unit of measure, in the order they were created, which is also by id
+	public static List<UOM> getUnitsOfMeasure() {
+		return registry.units;
+	}
+
+	// Get the units of measure of one system of measurement, in the order they were created
+	public static List<UOM> getUnitsOfMeasure(SystemOfMeasurement systemOfMeasurement) {
+		return registry.getUnits(systemOfMeasurement);
+	}
+
+	// Get the unit of measure with an abbreviation, i.e. "in".  Returns null if there isn't one, and throws IllegalArgumentException if there's more than one.
+	public static UOM findByAbbreviation(String abbreviation) {
+		return UOMRegistry.findUnique(registry.unitsByAbbreviation, abbreviation, "abbreviation");
+	}
+
+	// Get the unit of measure with a singular or plural name, ignoring case, i.e. "Inch".  Returns null if there isn't one, and throws IllegalArgumentException if there's more than one.
+	public static UOM findByName(String name) {
+		return UOMRegistry.findUnique(registry.unitsByName, UOMRegistry.normalizeName(name), "name");
+	}
+
+	static double calculateConversionFactor(UOM from, UOM to) {
+		// Keep the exact quantity for the common conversions to and from the canonical unit
+		if(to.getCanonicalUnitQuantity() == 1) {
+			return from.getCanonicalUnitQuantity();
+		}
+		return from.getCanonicalUnitQuantity() / to.getCanonicalUnitQuantity();
 	}
 
 	@SuppressWarnings({ "unchecked" })
@@ -73,17 +137,16 @@ public abstract class UOM<T_UOM extends UOM, T_UV extends Value> {
 		System.out.println("---------------------------------------------------------------------------------------------------------");
 		System.out.println("UNITS OF MEASURE REPORT:");
 		System.out.println("---------------------------------------------------------------------------------------------------------");
-		java.util.Iterator<SystemOfMeasurement> allSystems = UOM.allUnits.keySet().iterator();
-		while(allSystems.hasNext()) {
-			SystemOfMeasurement system = allSystems.next();
+		for(SystemOfMeasurement system : SystemOfMeasurement.values()) {
 			System.out.println("[" + system + "]");
-			Iterator<UOM> units = UOM.allUnits.get(system).iterator();
+			Iterator<UOM> units = getUnitsOfMeasure(system).iterator();
 			while(units.hasNext()) {
 				UOM unitOfMeasure = units.next(); 
 				Value<UOM, Value> cu = unitOfMeasure.getCanonicalValue();
 				Value ou = cu.convertTo(unitOfMeasure);
 				System.out.println(String.format("%25s = %-25s = %30s", unitOfMeasure, ou, cu));
-				if(!cu.equals(ou)) {
+				// Conversions multiply by a rounded factor, so the last bit or two can differ
+				if(Math.abs(cu.getCanonicalValue() - ou.getCanonicalValue()) > 2 * Math.ulp(cu.getCanonicalValue())) {
 					throw new RuntimeException("Canonical Units Converted Back To Original Units Were Not Equal");
 				}
 			}
@@ -132,6 +195,25 @@ public abstract class UOM<T_UOM extends UOM, T_UV extends Value> {
 	public final double getCanonicalUnitQuantity() {
 		return canonicalUnitQuantity;
 	}
+	// Get the dense index of this unit of measure, from 0 in the order units were created
+	public final int getId() {
+		return id;
+	}
+	// Get the number to multiply a value in this unit by to get the value in another unit
+	public final double getConversionFactorTo(T_UOM otherUOM) {
+		ConversionFactors factors = conversionFactors;
+		if(factors != null) {
+			double factor = factors.factors[otherUOM.getId()];
+			// NaN is never equal to itself
+			if(factor == factor) {
+				return factor;
+			}
+		}
+		if(getSystemOfMeasurement() != otherUOM.getSystemOfMeasurement()) {
+			throw new IllegalArgumentException("Incompatible measurement systems: " + getSystemOfMeasurement() + " and " + otherUOM.getSystemOfMeasurement() + ".");
+		}
+		return calculateConversionFactor(this, otherUOM);
+	}
 	// Convert to the canonical units
 	public final T_UV getCanonicalValue() {
 		return canonicalUOM.create(canonicalUnitQuantity);
@@ -147,4 +229,40 @@ public abstract class UOM<T_UOM extends UOM, T_UV extends Value> {
 		// Do we both represent the same canonical scalar value?
 		return getCanonicalUnitQuantity() == otherUOM.getCanonicalUnitQuantity();
 	}
+
+	/* ---------------------------------------------------------------------------------------------------------------
+	 * Bulk Conversions
+	 * 
+	 * For arrays of samples in this unit of measure, such as logged encoder positions or planned trajectories.
+	 * The loops are a plain multiply by one factor, which the JIT turns into SIMD instructions.
+	 * --------------------------------------------------------------------------------------------------------------- */
+
+	// Convert length values starting at values[offset] to another unit, storing them starting at result[resultOffset].  The ranges may only overlap if they're the same.
+	public final void convert(double[] values, int offset, int length, T_UOM otherUOM, double[] result, int resultOffset) {
+		if(offset < 0 || resultOffset < 0 || length < 0 || length > values.length - offset || length > result.length - resultOffset) {
+			throw new IndexOutOfBoundsException("Can't convert " + length + " values from offset " + offset + " of " + values.length + " to offset " + resultOffset + " of " + result.length + ".");
+		}
+		double factor = getConversionFactorTo(otherUOM);
+		for(int i = 0; i < length; i++) {
+			result[resultOffset + i] = values[offset + i] * factor;
+		}
+	}
+	// Convert every value to another unit, storing them in result, which must be at least as long
+	public final void convert(double[] values, T_UOM otherUOM, double[] result) {
+		convert(values, 0, values.length, otherUOM, result, 0);
+	}
+	// Convert every value to another unit, returning a new array
+	public final double[] convert(double[] values, T_UOM otherUOM) {
+		double[] result = new double[values.length];
+		convert(values, 0, values.length, otherUOM, result, 0);
+		return result;
+	}
+	// Convert length values starting at values[offset] to another unit, replacing them
+	public final void convertInPlace(double[] values, int offset, int length, T_UOM otherUOM) {
+		convert(values, offset, length, otherUOM, values, offset);
+	}
+	// Convert every value to another unit, replacing them
+	public final void convertInPlace(double[] values, T_UOM otherUOM) {
+		convert(values, 0, values.length, otherUOM, values, 0);
+	}
 }
\ No newline at end of file
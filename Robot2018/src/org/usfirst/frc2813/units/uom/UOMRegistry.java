@@ -0,0 +1,128 @@
+package org.usfirst.frc2813.units.uom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.usfirst.frc2813.units.SystemOfMeasurement;
+
+/**
+ * An immutable snapshot of every unit of measure, indexed for lookup by id, system of measurement, abbreviation and name.
+ *
+ * UOM keeps the current snapshot in a volatile field and replaces it with a new one whenever a unit is created
+ * (copy on write), so lookups never lock and never see a half updated index.  Adding a unit copies the unit list
+ * and all three indexes, which is fine for the hundred or so units created at startup.  Once sealed, the snapshot
+ * also holds the conversion factors between every pair of units, and no more units can be added.
+ */
+@SuppressWarnings("rawtypes")
+final class UOMRegistry {
+	static final UOMRegistry EMPTY = new UOMRegistry(
+			Collections.<UOM>emptyList(),
+			Collections.<SystemOfMeasurement,List<UOM>>emptyMap(),
+			Collections.<String,List<UOM>>emptyMap(),
+			Collections.<String,List<UOM>>emptyMap(),
+			null);
+
+	// Every unit, indexed by id
+	final List<UOM> units;
+	final Map<SystemOfMeasurement,List<UOM>> unitsBySystem;
+	// Abbreviations and names aren't unique, i.e. every motor configuration has "p" pulses, so each key has a list
+	final Map<String,List<UOM>> unitsByAbbreviation;
+	// Singular and plural names, in lower case
+	final Map<String,List<UOM>> unitsByName;
+	// conversionFactors[from id][to id], or NaN if the units are incompatible.  Null until sealed.
+	final double[][] conversionFactors;
+
+	private UOMRegistry(List<UOM> units, Map<SystemOfMeasurement,List<UOM>> unitsBySystem, Map<String,List<UOM>> unitsByAbbreviation, Map<String,List<UOM>> unitsByName, double[][] conversionFactors) {
+		this.units = units;
+		this.unitsBySystem = unitsBySystem;
+		this.unitsByAbbreviation = unitsByAbbreviation;
+		this.unitsByName = unitsByName;
+		this.conversionFactors = conversionFactors;
+	}
+
+	boolean isSealed() {
+		return conversionFactors != null;
+	}
+
+	/**
+	 * @return a copy of this registry with another unit, whose id is the current number of units
+	 */
+	UOMRegistry withUnit(UOM uom) {
+		Map<SystemOfMeasurement,List<UOM>> bySystem = new EnumMap<SystemOfMeasurement,List<UOM>>(SystemOfMeasurement.class);
+		bySystem.putAll(unitsBySystem);
+		bySystem.put(uom.getSystemOfMeasurement(), append(bySystem.get(uom.getSystemOfMeasurement()), uom));
+
+		Map<String,List<UOM>> byAbbreviation = new HashMap<String,List<UOM>>(unitsByAbbreviation);
+		byAbbreviation.put(uom.getUnitNameAbbreviation(), append(byAbbreviation.get(uom.getUnitNameAbbreviation()), uom));
+
+		Map<String,List<UOM>> byName = new HashMap<String,List<UOM>>(unitsByName);
+		String singular = normalizeName(uom.getUnitNameSingular());
+		String plural = normalizeName(uom.getUnitNamePlural());
+		byName.put(singular, append(byName.get(singular), uom));
+		if(!plural.equals(singular)) {
+			byName.put(plural, append(byName.get(plural), uom));
+		}
+		return new UOMRegistry(
+				append(units, uom),
+				Collections.unmodifiableMap(bySystem),
+				Collections.unmodifiableMap(byAbbreviation),
+				Collections.unmodifiableMap(byName),
+				null);
+	}
+
+	/**
+	 * @return a copy of this registry with the conversion factors between every pair of units
+	 */
+	UOMRegistry seal() {
+		int count = units.size();
+		double[][] factors = new double[count][count];
+		for(int from = 0; from < count; from++) {
+			UOM fromUOM = units.get(from);
+			for(int to = 0; to < count; to++) {
+				UOM toUOM = units.get(to);
+				factors[from][to] = fromUOM.getSystemOfMeasurement() == toUOM.getSystemOfMeasurement()
+						? UOM.calculateConversionFactor(fromUOM, toUOM)
+						: Double.NaN;
+			}
+		}
+		return new UOMRegistry(units, unitsBySystem, unitsByAbbreviation, unitsByName, factors);
+	}
+
+	List<UOM> getUnits(SystemOfMeasurement system) {
+		List<UOM> units = unitsBySystem.get(system);
+		return units != null ? units : Collections.<UOM>emptyList();
+	}
+
+	/**
+	 * @return the only unit with the key in the index, or null if there isn't one
+	 * @throws IllegalArgumentException if more than one unit has the key
+	 */
+	static UOM findUnique(Map<String,List<UOM>> index, String key, String description) {
+		List<UOM> units = index.get(key);
+		if(units == null) {
+			return null;
+		}
+		if(units.size() > 1) {
+			throw new IllegalArgumentException("More than one unit of measure has the " + description + " '" + key + "': " + units + ".");
+		}
+		return units.get(0);
+	}
+
+	static String normalizeName(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	private static List<UOM> append(List<UOM> list, UOM uom) {
+		List<UOM> result = new ArrayList<UOM>(list == null ? 1 : list.size() + 1);
+		if(list != null) {
+			result.addAll(list);
+		}
+		result.add(uom);
+		return Collections.unmodifiableList(result);
+	}
+}
@@ -12,6 +12,10 @@ public class Time extends Value<TimeUOM,Time> {
 	}
 	// Convert to to the specified units and return 
 	public Time convertTo(TimeUOM newUOM) {
+		// Values can't change, so there's no need for a copy
+		if(is(newUOM)) {
+			return this;
+		}
 		// NB: We already check that it's from the same number system, and this is a private factory that will create another instance of the same class/type.
 		return create(newUOM, getValueIn(newUOM));
 	}
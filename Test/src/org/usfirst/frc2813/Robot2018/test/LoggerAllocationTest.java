@@ -0,0 +1,67 @@
+package org.usfirst.frc2813.Robot2018.test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+import org.usfirst.frc2813.Robot2018.motor.simulated.Simulated;
+import org.usfirst.frc2813.Robot2018.subsystems.motor.ElevatorConfiguration;
+import org.usfirst.frc2813.logging.LogLevel;
+import org.usfirst.frc2813.logging.Logger;
+
+import com.sun.management.ThreadMXBean;
+
+/*
+ * Filtered log calls must not allocate, or the periodic path feeds the garbage collector
+ * even when nobody is reading the output.  This drives the real logging sites: the state
+ * changes in AbstractMotorController and the simulator's encoder update.  Nothing else on
+ * those paths allocates when holding or disabled, so any allocation is from logging.
+ */
+class LoggerAllocationTest {
+	private static final int LOOPS = 100000;
+	private static final int ROUNDS = 10;
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	@Test
+	void filteredCallsDoNotAllocate() throws Exception {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported(), "JVM can't count allocations");
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		Simulated controller = new Simulated(new ElevatorConfiguration());
+		// It is private, but periodic() also checks the limits, which creates values
+		Method updateEncoderPosition = Simulated.class.getDeclaredMethod("updateEncoderPosition");
+		updateEncoderPosition.setAccessible(true);
+
+		LogLevel previous = Logger.getLoggingLevel();
+		// Filters DEBUG and INFO, which is everything these paths log when nothing goes wrong
+		Logger.setLoggingLevel(LogLevel.ISSUE);
+		try {
+			long thread = Thread.currentThread().getId();
+			// Reflection and the first calls allocate until they're warmed up.  A site that allocates does so in every round.
+			long allocated = Long.MAX_VALUE;
+			for (int round = 0; round < ROUNDS && allocated >= LOOPS; round++) {
+				long before = threads.getThreadAllocatedBytes(thread);
+				runLoops(controller, updateEncoderPosition);
+				allocated = Math.min(allocated, threads.getThreadAllocatedBytes(thread) - before);
+			}
+			// Each loop makes two state changes and two encoder updates: six filtered log calls and four guarded ones.
+			// Allow less than one byte per loop, so a single allocating call fails.
+			assertTrue(allocated < LOOPS, "Bytes allocated in " + LOOPS + " loops: " + allocated);
+		} finally {
+			Logger.setLoggingLevel(previous);
+		}
+	}
+
+	private static void runLoops(Simulated controller, Method updateEncoderPosition) throws Exception {
+		for (int i = 0; i < LOOPS; i++) {
+			controller.disable();
+			updateEncoderPosition.invoke(controller, NO_ARGUMENTS);
+			controller.holdCurrentPosition();
+			updateEncoderPosition.invoke(controller, NO_ARGUMENTS);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package org.usfirst.frc2813.Robot2018.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.usfirst.frc2813.Robot2018.motor.operation.MotorOperation;
+import org.usfirst.frc2813.Robot2018.telemetry.TelemetryFormat;
+import org.usfirst.frc2813.Robot2018.telemetry.TelemetryLog;
+import org.usfirst.frc2813.Robot2018.telemetry.TelemetryReader;
+
+/*
+ * Write samples with TelemetryLog and read them back with TelemetryReader
+ */
+class TelemetryTest {
+	// The smallest segment TelemetryLog allows, about 48 samples
+	private static final int SMALL_SEGMENT_SIZE = TelemetryFormat.HEADER_SIZE + 1024;
+
+	private File directory;
+
+	@BeforeEach
+	void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("telemetry").toFile();
+	}
+
+	@AfterEach
+	void deleteDirectory() {
+		for(File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	void samplesReadBackAsCsv() throws IOException {
+		TelemetryLog log = new TelemetryLog(directory, TelemetryLog.DEFAULT_SEGMENT_SIZE);
+		int elevator = log.registerSource("elevator", "in", "in/s");
+		log.recordMotor(elevator, MotorOperation.HOLDING_CURRENT_POSITION, 12.5, -3.25, 0.5, TelemetryFormat.FLAG_FORWARD_HARD_LIMIT|TelemetryFormat.FLAG_EMULATED);
+		// Registered after the segment was started, and needs quoting
+		int arm = log.registerSource("arm, left", "deg", "deg/s");
+		log.recordMotor(arm, MotorOperation.DISABLED, Double.NaN, Double.NaN, Double.NaN, TelemetryFormat.FLAG_DISCONNECTED);
+		log.flush();
+
+		File[] segments = getSegments();
+		assertEquals(1, segments.length);
+		List<String> rows = readCsv(segments[0]);
+		assertEquals(3, rows.size(), rows.toString());
+		assertEquals(TelemetryReader.CSV_HEADER, rows.get(0));
+		String[] elevatorRow = rows.get(1).split(",");
+		assertArrayEquals(
+				new String[] { "elevator", "HOLDING_CURRENT_POSITION", "12.5", "in", "-3.25", "in/s", "0.5", "true", "false", "false", "true" },
+				Arrays.copyOfRange(elevatorRow, 1, elevatorRow.length));
+		long timestamp = Long.parseLong(elevatorRow[0]);
+		assertTrue(Math.abs(timestamp / 1000 - System.currentTimeMillis()) < 60000, "timestamp " + timestamp + " is not wall clock microseconds");
+		assertTrue(rows.get(2).endsWith(",\"arm, left\",DISABLED,NaN,deg,NaN,deg/s,NaN,false,false,true,false"), rows.get(2));
+	}
+
+	@Test
+	void fullSegmentsRollOver() throws IOException {
+		TelemetryLog log = new TelemetryLog(directory, SMALL_SEGMENT_SIZE);
+		int elevator = log.registerSource("elevator", "in", "in/s");
+		int samples = 200;
+		for(int i = 0; i < samples; i++) {
+			log.recordMotor(elevator, MotorOperation.MOVING_TO_ABSOLUTE_POSITION, i, 0, 0, 0);
+		}
+		log.flush();
+
+		File[] segments = getSegments();
+		assertTrue(segments.length > 1, "Only " + segments.length + " segment");
+		// Each segment repeats the source, so each one reads on its own
+		int position = 0;
+		for(File segment : segments) {
+			List<String> rows = readCsv(segment);
+			for(String row : rows.subList(1, rows.size())) {
+				String[] fields = row.split(",");
+				assertEquals("elevator", fields[1]);
+				assertEquals(position++, Float.parseFloat(fields[3]));
+			}
+		}
+		assertEquals(samples, position);
+	}
+
+	// In the order they were written
+	private File[] getSegments() {
+		File[] segments = directory.listFiles((dir, name) -> name.endsWith(".bin"));
+		Arrays.sort(segments);
+		return segments;
+	}
+
+	private static List<String> readCsv(File segment) throws IOException {
+		StringWriter csv = new StringWriter();
+		TelemetryReader.toCsv(segment, csv);
+		return new ArrayList<String>(Arrays.asList(csv.toString().split("\n")));
+	}
+}
@@ -0,0 +1,175 @@
+package org.usfirst.frc2813.Robot2018.test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.usfirst.frc2813.units.uom.LengthUOM;
+import org.usfirst.frc2813.units.uom.RateUOM;
+import org.usfirst.frc2813.units.uom.TimeUOM;
+import org.usfirst.frc2813.units.uom.UOM;
+import org.usfirst.frc2813.units.values.Value;
+
+/*
+ * Sealing can't be undone, and creating a unit afterwards throws, so each check runs in its own
+ * class loader with its own copy of the units.  The units the other tests use are left alone.
+ */
+class UOMRegistryTest {
+	private static final int THREADS = 8;
+	private static final int UNITS_PER_THREAD = 50;
+
+	@Test
+	void unitsCreatedOnManyThreadsAreAllRegistered() throws Exception {
+		runIsolated(ConcurrentRegistration.class);
+	}
+
+	@Test
+	void sealedConversionsMatchCalculatedOnes() throws Exception {
+		runIsolated(SealedConversions.class);
+	}
+
+	// Load the check, and the units it uses, in a new class loader and run it there
+	private static void runIsolated(Class<? extends Runnable> check) throws Exception {
+		URL[] urls = {
+				UOMRegistryTest.class.getProtectionDomain().getCodeSource().getLocation(),
+				UOM.class.getProtectionDomain().getCodeSource().getLocation()
+		};
+		try(URLClassLoader loader = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent())) {
+			Class<?> isolated = loader.loadClass(check.getName());
+			if(isolated == check) {
+				throw new IllegalStateException("Not isolated: " + check + " came from the test's class loader.");
+			}
+			java.lang.reflect.Constructor<?> constructor = isolated.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			((Runnable) constructor.newInstance()).run();
+		}
+	}
+
+	// JUnit isn't in the isolated class loader
+	private static void check(boolean ok, String message) {
+		if(!ok) {
+			throw new AssertionError(message);
+		}
+	}
+
+	/*
+	 * Ids are unique and dense, and every unit can be found by id, abbreviation and name
+	 */
+	static final class ConcurrentRegistration implements Runnable {
+		@Override
+		public void run() {
+			LengthUOM canonical = LengthUOM.CanonicalLengthUOM;
+			int before = UOM.getUnitsOfMeasure().size();
+			List<List<LengthUOM>> created = new ArrayList<List<LengthUOM>>();
+			AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+			List<Thread> threads = new ArrayList<Thread>();
+			for(int t = 0; t < THREADS; t++) {
+				List<LengthUOM> units = new ArrayList<LengthUOM>();
+				created.add(units);
+				int thread = t;
+				threads.add(new Thread(() -> {
+					try {
+						for(int i = 0; i < UNITS_PER_THREAD; i++) {
+							units.add(new LengthUOM("test unit " + thread + "-" + i, "test units " + thread + "-" + i, "tu" + thread + "-" + i, canonical, 1 + thread * UNITS_PER_THREAD + i));
+						}
+					} catch(Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}));
+			}
+			for(Thread thread : threads) {
+				thread.start();
+			}
+			for(Thread thread : threads) {
+				try {
+					thread.join();
+				} catch(InterruptedException e) {
+					throw new AssertionError("Interrupted", e);
+				}
+			}
+			check(failure.get() == null, "Creating a unit failed: " + failure.get());
+
+			List<UOM> units = UOM.getUnitsOfMeasure();
+			check(units.size() == before + THREADS * UNITS_PER_THREAD, "Expected " + (before + THREADS * UNITS_PER_THREAD) + " units, found " + units.size());
+			for(int id = 0; id < units.size(); id++) {
+				check(units.get(id).getId() == id, units.get(id) + " has id " + units.get(id).getId() + " but is at " + id);
+			}
+			for(List<LengthUOM> list : created) {
+				for(LengthUOM uom : list) {
+					check(units.get(uom.getId()) == uom, uom + " is not found by its id " + uom.getId());
+					check(UOM.findByAbbreviation(uom.getUnitNameAbbreviation()) == uom, uom + " is not found by its abbreviation");
+					check(UOM.findByName(uom.getUnitNamePlural().toUpperCase()) == uom, uom + " is not found by its name");
+				}
+			}
+		}
+	}
+
+	/*
+	 * After sealing, a conversion is one multiply by a factor from the table.  Converting 1, which is the
+	 * factor itself, must stay within one ulp of the multiply-then-divide conversions did before there was
+	 * a table.  Other values are rounded once more, so they're allowed two, as in dumpUnitsOfMeasure.
+	 */
+	static final class SealedConversions implements Runnable {
+		// The first is the factor itself
+		private static final double[] VALUES = { 1, 0.3, 12.7, 4096, 1e-3, -250 };
+
+		@Override
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		public void run() {
+			@SuppressWarnings("unused")
+			UOM x = LengthUOM.Micrometers;x = RateUOM.CentimetersPerDecisecond;x = TimeUOM.Microsecond;
+			// Motor configurations define units like this, with quantities that aren't round
+			LengthUOM pulse = new LengthUOM("test pulse", "test pulses", "test-p", LengthUOM.CanonicalLengthUOM, LengthUOM.Inches.getCanonicalUnitQuantity() * 5.5 / 4096);
+
+			List<UOM> units = UOM.getUnitsOfMeasure();
+			int pairs = 0;
+			double[][][] expected = new double[units.size()][units.size()][];
+			for(UOM from : units) {
+				for(UOM to : units) {
+					if(from.getSystemOfMeasurement() == to.getSystemOfMeasurement()) {
+						double[] values = new double[VALUES.length];
+						for(int i = 0; i < VALUES.length; i++) {
+							values[i] = VALUES[i] * from.getCanonicalUnitQuantity() / to.getCanonicalUnitQuantity();
+						}
+						expected[from.getId()][to.getId()] = values;
+						pairs++;
+					}
+				}
+			}
+			check(pairs > 1000, "Only " + pairs + " pairs of units to check");
+
+			UOM.seal();
+			check(UOM.isSealed(), "Not sealed");
+			for(UOM from : units) {
+				for(UOM to : units) {
+					double[] values = expected[from.getId()][to.getId()];
+					if(values == null) {
+						try {
+							from.getConversionFactorTo(to);
+							check(false, "Converted " + from + " to " + to);
+						} catch(IllegalArgumentException e) {
+							// Expected, they're different kinds of unit
+						}
+						continue;
+					}
+					for(int i = 0; i < VALUES.length; i++) {
+						double actual = ((Value) from.create(VALUES[i])).getValueIn(to);
+						int ulps = i == 0 ? 1 : 2;
+						check(Math.abs(actual - values[i]) <= ulps * Math.ulp(values[i]), VALUES[i] + " " + from + " is " + actual + " " + to + ", calculated " + values[i]);
+					}
+				}
+			}
+
+			try {
+				new LengthUOM("late unit", "late units", "late", LengthUOM.CanonicalLengthUOM, 2);
+				check(false, "Created a unit after sealing");
+			} catch(IllegalStateException e) {
+				// Expected
+			}
+			check(UOM.findByAbbreviation(pulse.getUnitNameAbbreviation()) == pulse, "Sealing lost " + pulse);
+		}
+	}
+}
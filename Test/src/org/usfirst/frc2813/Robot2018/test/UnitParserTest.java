@@ -0,0 +1,115 @@
+package org.usfirst.frc2813.Robot2018.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.usfirst.frc2813.Robot2018.subsystems.motor.ArmConfiguration;
+import org.usfirst.frc2813.Robot2018.subsystems.motor.ElevatorConfiguration;
+import org.usfirst.frc2813.units.UnitParser;
+import org.usfirst.frc2813.units.uom.LengthUOM;
+import org.usfirst.frc2813.units.uom.RateUOM;
+import org.usfirst.frc2813.units.values.Length;
+import org.usfirst.frc2813.units.values.Rate;
+import org.usfirst.frc2813.units.values.Value;
+
+class UnitParserTest {
+	private static UnitParser parser;
+
+	@BeforeAll
+	static void createParser() {
+		// Load the units of both configurations.  Both define "p", so it's ambiguous.
+		@SuppressWarnings("unused")
+		LengthUOM x = ArmConfiguration.ArmDegrees;
+		x = ElevatorConfiguration.ElevatorSRXMotorPulses;
+		parser = new UnitParser();
+	}
+
+	@Test
+	void abbreviation() {
+		Length length = parser.parseLength("27in");
+		assertSame(LengthUOM.Inches, length.getUOM());
+		assertEquals(27, length.getValue());
+	}
+
+	@Test
+	void rateWrittenAsLengthOverTime() {
+		Rate rate = parser.parseRate("22 in/s");
+		assertSame(RateUOM.InchesPerSecond, rate.getUOM());
+		assertEquals(22, rate.getValue());
+	}
+
+	@Test
+	void nameIgnoringCaseAndDashes() {
+		Length length = parser.parseLength("130 ArmDegrees");
+		assertSame(ArmConfiguration.ArmDegrees, length.getUOM());
+		assertEquals(130, length.getValue());
+	}
+
+	@Test
+	void exponent() {
+		Length length = parser.parseLength("1e3mm");
+		assertSame(LengthUOM.Millimeters, length.getUOM());
+		assertEquals(1000, length.getValue());
+	}
+
+	@Test
+	void ambiguousUnit() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> parser.parse("3 p"));
+		assertTrue(e.getMessage().contains("More than one"), e.getMessage());
+	}
+
+	@Test
+	void malformedNumber() {
+		assertThrows(IllegalArgumentException.class, () -> parser.parse("1.2.3in"));
+	}
+
+	@Test
+	void unknownUnit() {
+		assertThrows(IllegalArgumentException.class, () -> parser.parse("5 furlongs"));
+	}
+
+	@Test
+	void sameLiteralReturnsCachedValue() {
+		Value first = parser.parse("12.5in");
+		assertSame(first, parser.parse("12.5in"));
+		assertSame(parser.parseLength("4", LengthUOM.Inches), parser.parseLength("4", LengthUOM.Inches));
+	}
+
+	@Test
+	void bareNumberUsesDefault() {
+		Length inches = parser.parseLength("12", LengthUOM.Inches);
+		assertSame(LengthUOM.Inches, inches.getUOM());
+		assertEquals(12, inches.getValue());
+		// Cached separately for each default
+		Length millimeters = parser.parseLength("12", LengthUOM.Millimeters);
+		assertSame(LengthUOM.Millimeters, millimeters.getUOM());
+		assertNotSame(inches, millimeters);
+		// A unit in the literal wins over the default
+		assertSame(LengthUOM.Millimeters, parser.parseLength("12mm", LengthUOM.Inches).getUOM());
+		assertThrows(IllegalArgumentException.class, () -> parser.parse("12"));
+	}
+
+	@Test
+	void builtInUnitsWithoutLoadingThemFirst() throws Exception {
+		// A new class loader, where nothing has touched LengthUOM yet
+		URL[] urls = { UnitParser.class.getProtectionDomain().getCodeSource().getLocation() };
+		try(URLClassLoader loader = new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent())) {
+			Class<?> isolated = loader.loadClass(UnitParser.class.getName());
+			Object parser = isolated.getMethod("getDefault").invoke(null);
+			assertEquals("27.0in", isolated.getMethod("parse", String.class).invoke(parser, "27in").toString());
+		}
+	}
+
+	@Test
+	void wrongKindOfUnit() {
+		assertThrows(IllegalArgumentException.class, () -> parser.parseRate("27in"));
+	}
+}